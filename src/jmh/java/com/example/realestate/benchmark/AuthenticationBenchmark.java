@@ -0,0 +1,78 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.model.User;
+import com.example.realestate.repository.UserRepository;
+import com.example.realestate.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Logins per second as the user table grows: the email lookup alone, a repeat login served from the
+// verified-credential cache, and a login by a different user each time (full bcrypt check).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String PASSWORD = "secret";
+
+    @Param({"10000", "1000000"})
+    public int userCount;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+
+        // Every seeded user shares one hash, so seeding doesn't pay for a million bcrypt computations
+        String hash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int i = 0; i < userCount; i++) {
+            rows.add(new Object[] {email(i), hash, "User " + i});
+            if (rows.size() == 10_000 || i == userCount - 1) {
+                jdbcTemplate.batchUpdate("insert into users (email, password, name) values (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User findByEmail() {
+        return userRepository.findByEmail(email(ThreadLocalRandom.current().nextInt(userCount)));
+    }
+
+    @Benchmark
+    public Map<String, Object> loginSameUser() {
+        return userService.authenticateUser(email(userCount / 2), PASSWORD);
+    }
+
+    @Benchmark
+    public Map<String, Object> loginDifferentUsers() {
+        return userService.authenticateUser(email(ThreadLocalRandom.current().nextInt(userCount)), PASSWORD);
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@example.com";
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.RealestateApplication;
+import com.example.realestate.index.PropertyIndexMaintainer;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.PropertyChangeSequence;
+import com.example.realestate.repository.PropertyRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Boots the application against a private in-memory H2 database, so benchmarks need no PostgreSQL.
+final class BenchmarkContext {
+
+    static final String[] TYPES = {"Apartment", "House", "Villa", "Studio"};
+    static final String[] STATUSES = {"For Sale", "For Rent", "Sold"};
+    static final String[] LOCATIONS = {"Pune", "Mumbai", "Delhi", "Goa", "Nagpur", "Chennai"};
+
+    private BenchmarkContext() {
+    }
+
+    // Passed as command-line arguments, which (unlike builder default properties) override application.properties.
+    // The Flyway migrations are PostgreSQL DDL, so Hibernate creates the schema here instead, and the change feed's
+    // counter row, which the baseline migration inserts, is added afterwards. Nothing drops the schema on close: the
+    // in-memory R2DBC shutdown closes the database first, and it is discarded with the process anyway.
+    static ConfigurableApplicationContext start() {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(RealestateApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///benchmark",
+                        "--spring.r2dbc.username=sa",
+                        "--spring.r2dbc.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.flyway.enabled=false",
+                        "--management.server.port=-1",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        context.getBean(JdbcTemplate.class).update(
+                "insert into property_change_sequence (id, last_sequence) values (?, 0)", PropertyChangeSequence.ROW_ID);
+        return context;
+    }
+
+    static List<Property> randomProperties(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Property> properties = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            properties.add(new Property(null,
+                    "Listing " + i,
+                    "Spacious home with garden and parking, close to schools and shops. Listing number " + i,
+                    LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    (double) random.nextInt(20_000, 2_000_000),
+                    "https://images.example.com/" + i + ".jpg",
+                    TYPES[random.nextInt(TYPES.length)],
+                    STATUSES[random.nextInt(STATUSES.length)]));
+        }
+        return properties;
+    }
+
+    // Saving through the repository publishes no change events, and the indexes were built (empty) when the context
+    // became ready, so they are rebuilt from the seeded table
+    static void seed(ConfigurableApplicationContext context, int count) {
+        PropertyRepository repository = context.getBean(PropertyRepository.class);
+        List<Property> properties = randomProperties(count);
+        for (int from = 0; from < count; from += 1000) {
+            repository.saveAll(properties.subList(from, Math.min(count, from + 1000)));
+        }
+        context.getBean(PropertyIndexMaintainer.class).rebuildAll();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.index.GeoIndex;
+import com.example.realestate.model.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Radius and k-nearest queries against GeoIndex, with listings clustered around a few metro areas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeoIndexBenchmark {
+
+    private static final double[][] METROS = {
+            {18.5204, 73.8567}, {19.0760, 72.8777}, {28.6139, 77.2090}, {12.9716, 77.5946}, {13.0827, 80.2707}};
+
+    @Param({"1000000"})
+    public int listings;
+
+    private GeoIndex index;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new GeoIndex();
+        random = new SplittableRandom(42);
+        for (long id = 1; id <= listings; id++) {
+            double[] metro = METROS[(int) (id % METROS.length)];
+            Property property = new Property(id, "Home " + id, null, "City", 100.0, "http://example.com/a.jpg",
+                    id % 2 == 0 ? "House" : "Flat", "For Sale");
+            // Spread roughly +/- 30 km around the metro centre
+            property.setLatitude(metro[0] + random.nextDouble(-0.27, 0.27));
+            property.setLongitude(metro[1] + random.nextDouble(-0.27, 0.27));
+            index.upsert(property);
+        }
+    }
+
+    @Benchmark
+    public List<GeoIndex.GeoHit> radius2KmTop50() {
+        double[] metro = METROS[random.nextInt(METROS.length)];
+        return index.withinRadius(metro[0], metro[1], 2, null, null, 50);
+    }
+
+    @Benchmark
+    public List<GeoIndex.GeoHit> radius10KmHousesTop50() {
+        double[] metro = METROS[random.nextInt(METROS.length)];
+        return index.withinRadius(metro[0], metro[1], 10, "House", null, 50);
+    }
+
+    @Benchmark
+    public List<GeoIndex.GeoHit> nearest20() {
+        double[] metro = METROS[random.nextInt(METROS.length)];
+        return index.nearest(metro[0] + 0.1, metro[1] - 0.1, null, null, 20);
+    }
+}
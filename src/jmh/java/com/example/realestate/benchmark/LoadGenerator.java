@@ -0,0 +1,126 @@
+package com.example.realestate.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator for comparing the platform-thread and virtual-thread modes of a running app.
+ * <p>
+ * Each of `concurrency` virtual-thread clients sends GETs back to back for the measured period, after a warmup
+ * whose results are discarded, then throughput and latency percentiles are printed. Build with
+ * {@code ./mvnw -Pbenchmark -DskipTests test-compile}, start the app (with and without
+ * {@code --spring.profiles.active=virtual}) and run:
+ * <pre>
+ * java -cp target/test-classes com.example.realestate.benchmark.LoadGenerator \
+ *     "http://localhost:8080/api/properties/filter?minPrice=1000&amp;size=20" 400 30 10
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadGenerator <url> [concurrency=200] [seconds=30] [warmupSeconds=10]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .executor(clients)
+                     .build()) {
+
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+            long start = System.nanoTime();
+            long measureFrom = start + Duration.ofSeconds(warmupSeconds).toNanos();
+            long stopAt = measureFrom + Duration.ofSeconds(seconds).toNanos();
+
+            List<Future<Recorder>> workers = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(clients.submit(() -> run(http, request, measureFrom, stopAt)));
+            }
+            Recorder total = new Recorder();
+            for (Future<Recorder> worker : workers) {
+                total.addAll(worker.get());
+            }
+            total.print(uri, concurrency, seconds);
+        }
+    }
+
+    private static Recorder run(HttpClient http, HttpRequest request, long measureFrom, long stopAt) {
+        Recorder recorder = new Recorder();
+        long now;
+        while ((now = System.nanoTime()) < stopAt) {
+            boolean ok;
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = response.statusCode() / 100 == 2;
+            } catch (Exception ex) {
+                ok = false;
+            }
+            long end = System.nanoTime();
+            if (now >= measureFrom && end <= stopAt) {
+                recorder.record(end - now, ok);
+            }
+        }
+        return recorder;
+    }
+
+    // Latencies in nanoseconds, in a growable array (successful requests only)
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+
+        void addAll(Recorder other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        void print(URI uri, int concurrency, int seconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("%s  concurrency=%d  duration=%ds%n", uri, concurrency, seconds);
+            System.out.printf("requests=%d  errors=%d  throughput=%.1f req/s%n", count, errors, (double) count / seconds);
+            System.out.printf("latency ms: p50=%.2f  p90=%.2f  p99=%.2f  max=%.2f%n",
+                    percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
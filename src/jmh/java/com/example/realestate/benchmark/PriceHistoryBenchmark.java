@@ -0,0 +1,63 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.dto.PriceBucketDto;
+import com.example.realestate.index.PriceHistoryStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Downsampling cost in PriceHistoryStore: a year of daily buckets for 5,000 properties with 50 price changes each.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceHistoryBenchmark {
+
+    private static final int PROPERTIES = 5_000;
+    private static final int CHANGES_PER_PROPERTY = 50;
+    private static final Instant END = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Instant START = END.minus(Duration.ofDays(365));
+
+    private PriceHistoryStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new PriceHistoryStore();
+        Random random = new Random(42);
+        for (long id = 1; id <= PROPERTIES; id++) {
+            double price = 100_000 + random.nextInt(900_000);
+            Instant time = START.minus(Duration.ofDays(30));
+            for (int i = 0; i < CHANGES_PER_PROPERTY; i++) {
+                store.append(id, time, price);
+                time = time.plus(Duration.ofHours(1 + random.nextInt(14 * 24)));
+                price = Math.max(1_000, price * (0.9 + random.nextDouble() * 0.2));
+            }
+        }
+        System.out.printf("%n%d points in %d KB encoded%n", store.pointCount(), store.encodedBytes() / 1024);
+    }
+
+    @Benchmark
+    public int dailyBucketsForAllProperties() {
+        int buckets = 0;
+        for (long id = 1; id <= PROPERTIES; id++) {
+            List<PriceBucketDto> series = store.buckets(id, START, END, Duration.ofDays(1).toMillis());
+            buckets += series.size();
+        }
+        return buckets;
+    }
+
+    @Benchmark
+    public int rawPointsForAllProperties() {
+        int points = 0;
+        for (long id = 1; id <= PROPERTIES; id++) {
+            points += store.points(id, START, END).size();
+        }
+        return points;
+    }
+}
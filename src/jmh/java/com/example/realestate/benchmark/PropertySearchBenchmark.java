@@ -0,0 +1,63 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.dto.PropertySearchCriteria;
+import com.example.realestate.model.Property;
+import com.example.realestate.service.PropertyService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// PropertyService search paths over a seeded H2 catalog.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropertySearchBenchmark {
+
+    @Param({"10000"})
+    public int catalogSize;
+
+    private ConfigurableApplicationContext context;
+    private PropertyService propertyService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seed(context, catalogSize);
+        propertyService = context.getBean(PropertyService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Property> searchByTypeAndStatus() {
+        return propertyService.searchProperties("House", "For Sale");
+    }
+
+    @Benchmark
+    public Page<Property> filterByTypeAndStatusPage() {
+        PropertySearchCriteria criteria = new PropertySearchCriteria("House", "For Sale", null, null, null, null);
+        return propertyService.searchProperties(criteria, PageRequest.of(0, 50, Sort.by("price")));
+    }
+
+    @Benchmark
+    public Page<Property> filterByPriceRangeAndText() {
+        PropertySearchCriteria criteria = new PropertySearchCriteria(null, "For Sale", 100_000.0, 500_000.0, null, "garden");
+        return propertyService.searchProperties(criteria, PageRequest.of(0, 50, Sort.by("price")));
+    }
+
+    @Benchmark
+    public List<Property> fullTextSearch() {
+        return propertyService.searchByText("garden parking", 20);
+    }
+}
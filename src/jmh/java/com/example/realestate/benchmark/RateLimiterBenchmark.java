@@ -0,0 +1,57 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.security.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-request admission cost in RateLimiter: one hot client (contended bucket) and many distinct clients.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "realestate.ratelimit.search.per-second", "1000000000",
+                "realestate.ratelimit.search.burst", "1000",
+                "realestate.ratelimit.max-concurrent-requests", "1000")));
+        rateLimiter = new RateLimiter(environment);
+        clients = new String[10_000];
+        for (int i = 0; i < clients.length; i++) {
+            clients[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long sameClient() {
+        return rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.EndpointClass.SEARCH);
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return rateLimiter.tryAcquire(clients[ThreadLocalRandom.current().nextInt(clients.length)], RateLimiter.EndpointClass.SEARCH);
+    }
+
+    @Benchmark
+    public boolean enterAndExit() {
+        boolean entered = rateLimiter.tryEnter();
+        if (entered) {
+            rateLimiter.exit();
+        }
+        return entered;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.index.SavedSearchIndex;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.SavedSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Matching one new listing against 100,000 saved searches: the reverse index versus checking every search in turn.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SavedSearchBenchmark {
+
+    private static final int SEARCHES = 100_000;
+    private static final int PROPERTIES = 1024;
+    private static final String[] TYPES = {"House", "Flat", "Villa", "Plot", "Office", "Shop"};
+    private static final String[] STATUSES = {"Sale", "Rent", "Sold"};
+    private static final String[] LOCATIONS = {"Pune", "Mumbai", "Goa", "Delhi", "Nagpur", "Nashik", "Thane", "Surat"};
+
+    private final SavedSearchIndex index = new SavedSearchIndex();
+    private final List<SavedSearch> searches = new ArrayList<>();
+    private final Property[] properties = new Property[PROPERTIES];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (long id = 1; id <= SEARCHES; id++) {
+            // Most users pick a type and a budget around a target price; some leave out status, location or a bound
+            double target = 50_000 * Math.pow(2, random.nextDouble() * 6);
+            Double min = random.nextInt(5) == 0 ? null : Math.floor(target * 0.8);
+            Double max = random.nextInt(5) == 0 ? null : Math.ceil(target * 1.2);
+            searches.add(new SavedSearch(id, id / 3, "search " + id,
+                    random.nextInt(10) == 0 ? null : TYPES[random.nextInt(TYPES.length)],
+                    random.nextBoolean() ? null : STATUSES[random.nextInt(STATUSES.length)],
+                    min, max,
+                    random.nextInt(3) == 0 ? null : LOCATIONS[random.nextInt(LOCATIONS.length)]));
+        }
+        index.addAll(searches);
+        for (int i = 0; i < PROPERTIES; i++) {
+            properties[i] = new Property((long) i, "Listing " + i, null, LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    50_000 * Math.pow(2, random.nextDouble() * 6), "http://example.com/" + i + ".jpg",
+                    TYPES[random.nextInt(TYPES.length)], STATUSES[random.nextInt(STATUSES.length)]);
+        }
+        long matches = 0;
+        for (Property property : properties) {
+            matches += index.match(property).size();
+        }
+        System.out.printf("%n%d matches per listing on average%n", matches / PROPERTIES);
+    }
+
+    @Benchmark
+    public int reverseIndex() {
+        return index.match(properties[next++ & (PROPERTIES - 1)]).size();
+    }
+
+    @Benchmark
+    public int checkEverySearch() {
+        Property property = properties[next++ & (PROPERTIES - 1)];
+        String location = property.getLocation().toLowerCase();
+        int matches = 0;
+        for (SavedSearch search : searches) {
+            if ((search.getType() == null || search.getType().equals(property.getType()))
+                    && (search.getStatus() == null || search.getStatus().equals(property.getStatus()))
+                    && (search.getMinPrice() == null || property.getPrice() >= search.getMinPrice())
+                    && (search.getMaxPrice() == null || property.getPrice() <= search.getMaxPrice())
+                    && (search.getLocation() == null || location.contains(search.getLocation().toLowerCase()))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
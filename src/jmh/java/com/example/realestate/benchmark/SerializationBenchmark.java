@@ -0,0 +1,54 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.model.Property;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson serialization of list responses, as written by the property controllers for each Accept type.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private List<Property> properties;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+        smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+        properties = BenchmarkContext.randomProperties(listSize);
+        for (int i = 0; i < properties.size(); i++) {
+            properties.get(i).setId((long) i + 1);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePropertyList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(properties);
+    }
+
+    @Benchmark
+    public byte[] serializePropertyListCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(properties);
+    }
+
+    @Benchmark
+    public byte[] serializePropertyListSmile() throws JsonProcessingException {
+        return smileMapper.writeValueAsBytes(properties);
+    }
+}
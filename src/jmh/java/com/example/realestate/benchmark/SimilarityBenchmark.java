@@ -0,0 +1,64 @@
+package com.example.realestate.benchmark;
+
+import com.example.realestate.index.SimilarityIndex;
+import com.example.realestate.model.Property;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Top-10 similar properties among 100,000: the IVF index versus scanning every vector.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarityBenchmark {
+
+    private static final int PROPERTIES = 100_000;
+    private static final int K = 10;
+    private static final String[] TYPES = {"House", "Flat", "Villa", "Plot", "Office", "Shop"};
+    private static final String[] STATUSES = {"Sale", "Rent", "Sold"};
+    private static final String[] LOCATIONS = {"Pune", "Mumbai", "Goa", "Delhi", "Nagpur", "Nashik", "Thane", "Surat"};
+    private static final String[] WORDS = {"garden", "pool", "sea", "view", "parking", "balcony", "lift", "gym",
+            "quiet", "central", "furnished", "new", "spacious", "terrace", "metro", "school"};
+
+    private final SimilarityIndex index = new SimilarityIndex();
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index.clear();   // Trains once below rather than in the background while loading
+        for (long id = 1; id <= PROPERTIES; id++) {
+            String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + WORDS[random.nextInt(WORDS.length)];
+            index.upsert(new Property(id, "Listing " + id, description, LOCATIONS[random.nextInt(LOCATIONS.length)],
+                    50_000 * Math.pow(2, random.nextDouble() * 8), "http://example.com/" + id + ".jpg",
+                    TYPES[random.nextInt(TYPES.length)], STATUSES[random.nextInt(STATUSES.length)]));
+        }
+        long start = System.nanoTime();
+        index.train();
+        System.out.printf("%nTrained %d lists in %d ms%n", index.listCount(), (System.nanoTime() - start) / 1_000_000);
+
+        int found = 0;
+        int queries = 0;
+        for (long id = 1; id <= PROPERTIES; id += 100, queries++) {
+            List<Long> exact = index.similarExact(id, K).stream().map(SimilarityIndex.SimilarHit::propertyId).toList();
+            found += (int) index.similar(id, K).stream().map(SimilarityIndex.SimilarHit::propertyId).filter(exact::contains).count();
+        }
+        System.out.printf("Recall@%d: %.3f%n", K, found / (double) (queries * K));
+    }
+
+    @Benchmark
+    public List<SimilarityIndex.SimilarHit> invertedFile() {
+        return index.similar(next++ % PROPERTIES + 1, K);
+    }
+
+    @Benchmark
+    public List<SimilarityIndex.SimilarHit> exactScan() {
+        return index.similarExact(next++ % PROPERTIES + 1, K);
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.realestate.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * A disk-backed blob cache made of fixed-size, memory-mapped segment files.
+ * <p>
+ * Blobs are appended to the active segment through its mapping; each record is [key length][key][content type
+ * length][content type][data length][data], and the key length is written last so a torn record reads as the end
+ * of the segment. When the active segment is full a new one is started, and once the store holds its maximum number
+ * of segments the least recently read one is evicted whole (LRU at segment granularity, so eviction never compacts
+ * or copies). The index lives in memory and is rebuilt by scanning the segments on startup.
+ * <p>
+ * Callers serve a {@link Blob} straight from its file region, e.g. with FileChannel.transferTo or Tomcat sendfile.
+ * An evicted segment's file is only deleted at the following eviction, so transfers already under way can finish.
+ */
+public class BlobStore implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".blob";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong clock = new AtomicLong();   // Logical time of segment reads, for LRU
+
+    private final Map<String, Blob> index = new HashMap<>();
+    private final List<Segment> segments = new ArrayList<>();   // Oldest first; the last one takes writes
+    private Segment retired;   // Evicted, kept on disk until the next eviction
+    private long nextSegmentNumber;
+
+    /**
+     * Opens the store, recovering the blobs already in the directory.
+     * @param directory Where the segment files live; created if missing.
+     * @param segmentSize The size of each segment file in bytes, which also bounds the largest blob.
+     * @param maxSegments How many segments to keep before evicting; at least 2.
+     */
+    public BlobStore(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (maxSegments < 2) {
+            throw new IllegalArgumentException("A blob store needs at least 2 segments");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Looks up a blob and marks its segment as recently used.
+     * @param key The key the blob was stored under.
+     * @return The blob's location, or null if it isn't cached.
+     */
+    public Blob get(String key) {
+        lock.readLock().lock();
+        try {
+            Blob blob = index.get(key);
+            if (blob != null) {
+                blob.segment.lastAccess = clock.incrementAndGet();
+            }
+            return blob;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a blob, replacing any previous blob with the same key.
+     * @param key The key to store it under.
+     * @param contentType The media type to serve it with.
+     * @param data The content.
+     * @return The stored blob's location, or null if it is too large to fit in a segment.
+     */
+    public Blob put(String key, String contentType, byte[] data) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] typeBytes = contentType.getBytes(StandardCharsets.UTF_8);
+        int recordSize = 3 * Integer.BYTES + keyBytes.length + typeBytes.length + data.length;
+        if (recordSize > segmentSize - Integer.BYTES) {   // Room is always left for the end marker
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            Segment segment = segments.get(segments.size() - 1);
+            if (segment.writePosition + recordSize > segmentSize - Integer.BYTES) {
+                segment = startSegment();
+            }
+            int start = segment.writePosition;
+            MappedByteBuffer buffer = segment.buffer;
+            int position = start + Integer.BYTES;
+            buffer.put(position, keyBytes);
+            position += keyBytes.length;
+            buffer.putInt(position, typeBytes.length);
+            position += Integer.BYTES;
+            buffer.put(position, typeBytes);
+            position += typeBytes.length;
+            buffer.putInt(position, data.length);
+            buffer.put(position + Integer.BYTES, data);
+            buffer.putInt(start, keyBytes.length);   // Commits the record
+
+            Blob blob = new Blob(key, segment, contentType, position + Integer.BYTES, data.length);
+            index.put(key, blob);
+            segment.keys.add(key);
+            segment.writePosition = start + recordSize;
+            segment.lastAccess = clock.incrementAndGet();
+            return blob;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of blobs currently cached.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The bytes of segment space in use, including record headers.
+     */
+    public long usedBytes() {
+        lock.readLock().lock();
+        try {
+            return segments.stream().mapToLong(segment -> segment.writePosition).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            if (retired != null) {
+                retired.delete();   // Otherwise it would be recovered on the next start
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Starts a new active segment, evicting the least recently read one if the store is full
+    private Segment startSegment() {
+        if (segments.size() >= maxSegments) {
+            Segment victim = segments.subList(0, segments.size() - 1).stream()
+                    .min(Comparator.comparingLong(segment -> segment.lastAccess))
+                    .orElseThrow();
+            segments.remove(victim);
+            for (String key : victim.keys) {
+                Blob blob = index.get(key);
+                if (blob != null && blob.segment == victim) {   // Not since rewritten into a newer segment
+                    index.remove(key);
+                }
+            }
+            if (retired != null) {
+                retired.delete();
+            }
+            retired = victim;
+        }
+        try {
+            Segment segment = Segment.create(directory.resolve(SEGMENT_PREFIX + nextSegmentNumber++ + SEGMENT_SUFFIX), segmentSize);
+            segments.add(segment);
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not create a blob segment in " + directory, ex);
+        }
+    }
+
+    // Maps the existing segments oldest first and indexes their records; later records win
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(file -> segmentNumber(file) >= 0)
+                    .sorted(Comparator.comparingLong(BlobStore::segmentNumber))
+                    .toList();
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            nextSegmentNumber = segmentNumber(file) + 1;
+            if (i < files.size() - maxSegments || Files.size(file) != segmentSize) {
+                Files.delete(file);   // Over the limit, or written with another segment size
+                continue;
+            }
+            Segment segment = Segment.create(file, segmentSize);
+            segment.lastAccess = clock.incrementAndGet();
+            scan(segment);
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            startSegment();
+        }
+    }
+
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + Integer.BYTES <= segmentSize) {
+            int keyLength = buffer.getInt(position);
+            if (keyLength <= 0 || !fits(position + Integer.BYTES, keyLength + Integer.BYTES)) {
+                break;   // End of the written records (or a damaged one, which ends the segment too)
+            }
+            int cursor = position + Integer.BYTES;
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(cursor, keyBytes);
+            cursor += keyLength;
+            int typeLength = buffer.getInt(cursor);
+            cursor += Integer.BYTES;
+            if (typeLength < 0 || !fits(cursor, typeLength + Integer.BYTES)) {
+                break;
+            }
+            byte[] typeBytes = new byte[typeLength];
+            buffer.get(cursor, typeBytes);
+            cursor += typeLength;
+            int dataLength = buffer.getInt(cursor);
+            cursor += Integer.BYTES;
+            if (dataLength < 0 || !fits(cursor, dataLength)) {
+                break;
+            }
+
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            index.put(key, new Blob(key, segment, new String(typeBytes, StandardCharsets.UTF_8), cursor, dataLength));
+            segment.keys.add(key);
+            position = cursor + dataLength;
+        }
+        segment.writePosition = position;
+    }
+
+    private boolean fits(int position, long length) {
+        return position + length <= segmentSize;
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * The location of a cached blob: a region of a segment file.
+     */
+    public static final class Blob {
+
+        private final String key;
+        private final Segment segment;
+        private final String contentType;
+        private final long offset;
+        private final int length;
+
+        private Blob(String key, Segment segment, String contentType, long offset, int length) {
+            this.key = key;
+            this.segment = segment;
+            this.contentType = contentType;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public Path file() {
+            return segment.file;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public long offset() {
+            return offset;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * Copies the blob out of the mapping, for callers that can't transfer from the file.
+         * @return The content.
+         */
+        public byte[] bytes() {
+            byte[] data = new byte[length];
+            segment.buffer.get((int) offset, data);
+            return data;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final List<String> keys = new ArrayList<>();
+        private int writePosition;
+        private volatile long lastAccess;
+
+        private Segment(Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // Opens or creates a segment file of exactly segmentSize bytes and maps all of it
+        static Segment create(Path file, int segmentSize) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < segmentSize) {
+                channel.write(ByteBuffer.allocate(1), segmentSize - 1);   // Sparse until written
+            }
+            return new Segment(file, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+
+        void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not delete blob segment " + file, ex);
+            }
+        }
+    }
+}
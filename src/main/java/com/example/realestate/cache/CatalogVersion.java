@@ -0,0 +1,63 @@
+package com.example.realestate.cache;
+
+import com.example.realestate.event.PropertyChangedEvent;
+import com.example.realestate.repository.PropertyChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * A catalog-wide change counter, used as the validator for list and filter responses.
+ * <p>
+ * The counter is the change feed's sequence row, which every committed property change moves, whichever instance
+ * made it; so a client holding the tag of an earlier response can be answered 304 Not Modified by any instance without
+ * running the query. The value is cached for up to max-age, and dropped as soon as a local change commits.
+ */
+@Component
+public class CatalogVersion {
+
+    private record Reading(long sequence, long readAtNanos) {
+    }
+
+    @Autowired
+    private PropertyChangeRepository propertyChangeRepository;
+
+    @Value("${realestate.catalog-version.max-age:1s}")
+    private Duration maxAge;
+
+    private volatile Reading reading;
+
+    /**
+     * Read this before loading the data it validates, so a concurrent change can only make the tag older, never newer.
+     * @return An opaque token that changes whenever any property is created, updated or deleted.
+     */
+    public String current() {
+        return Long.toString(sequence(), 36);
+    }
+
+    /**
+     * Same reading as {@link #current()}, as a number that only grows.
+     * @return The sequence of the latest committed property change, as of at most max-age ago.
+     */
+    public long sequence() {
+        Reading last = reading;
+        long now = System.nanoTime();
+        if (last == null || now - last.readAtNanos() > maxAge.toNanos()) {
+            last = new Reading(propertyChangeRepository.findLastReservedSequence(), now);
+            reading = last;
+        }
+        return last.sequence();
+    }
+
+    /**
+     * Drops the cached counter once a property change has committed, so this instance's own writes show at once.
+     * @param event The change published by PropertyService.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        reading = null;
+    }
+}
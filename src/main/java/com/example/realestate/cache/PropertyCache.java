@@ -0,0 +1,130 @@
+package com.example.realestate.cache;
+
+import com.example.realestate.dto.PropertySearchCriteria;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.PropertyChange;
+import com.example.realestate.service.PropertyChangeFeed;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through caches in front of property lookups by ID and type/status filter pages.
+ * <p>
+ * Filter pages are cached per view (full entities or summaries), so both shapes of the same page can be held.
+ * Both caches use Caffeine (W-TinyLFU admission, size bound, expire-after-write) and report hit/miss
+ * counts to Micrometer as cache.gets{cache=properties.byId|properties.filter}.
+ * <p>
+ * Both follow changes committed on every instance. Filter pages are keyed by the {@link CatalogVersion} sequence read
+ * before they were loaded, so once any change moves it they are no longer served, and a page is always at least as
+ * new as the catalog ETag it goes out with; pages under older sequences simply age out. ID entries are dropped by
+ * following the change feed: at once for changes committed here, within the feed's poll interval for others.
+ */
+@Component
+public class PropertyCache {
+
+    private final Cache<Long, Property> byId;
+    private final Cache<FilterKey, Page<?>> filterPages;
+    private final CatalogVersion catalogVersion;
+    private final PropertyChangeFeed.Follower follower;
+
+    public PropertyCache(
+            @Value("${realestate.cache.properties.maximum-size:10000}") long byIdMaximumSize,
+            @Value("${realestate.cache.properties.expire-after-write:10m}") Duration byIdTtl,
+            @Value("${realestate.cache.filters.maximum-size:1000}") long filterMaximumSize,
+            @Value("${realestate.cache.filters.expire-after-write:1m}") Duration filterTtl,
+            CatalogVersion catalogVersion,
+            PropertyChangeFeed propertyChangeFeed,
+            MeterRegistry meterRegistry) {
+
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(byIdMaximumSize)
+                .expireAfterWrite(byIdTtl)
+                .recordStats()
+                .build();
+        this.filterPages = Caffeine.newBuilder()
+                .maximumSize(filterMaximumSize)
+                .expireAfterWrite(filterTtl)
+                .recordStats()
+                .build();
+        this.catalogVersion = catalogVersion;
+        this.follower = propertyChangeFeed.follow(this::invalidate);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "properties.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, filterPages, "properties.filter");
+    }
+
+    /**
+     * Returns the cached property, loading and caching it on a miss. Missing properties are not cached.
+     * @param id The ID of the property.
+     * @param loader Loads the property from the database; may return null.
+     * @return The property, or null if the loader found nothing.
+     */
+    public Property getById(Long id, Function<Long, Property> loader) {
+        return byId.get(id, loader);
+    }
+
+    /**
+     * Returns the cached property without loading it on a miss.
+     * @param id The ID of the property.
+     * @return The property, or null if it isn't cached.
+     */
+    public Property getIfPresent(Long id) {
+        return byId.getIfPresent(id);
+    }
+
+    /**
+     * Returns a cached filter page when the search only constrains type and/or status, loading it on a miss.
+     * Searches using price, location or free text bypass the cache.
+     * @param criteria The search filters.
+     * @param pageable The requested page and sort order.
+     * @param view The element type of the page, e.g. Property or PropertySummary.
+     * @param loader Runs the search against the database.
+     * @return The page of matching properties.
+     */
+    @SuppressWarnings("unchecked")  // Keys carry the view, so a cached page always has the requested element type
+    public <T> Page<T> getFilterPage(PropertySearchCriteria criteria, Pageable pageable, Class<T> view,
+                                     Function<FilterKey, Page<T>> loader) {
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null
+                || StringUtils.hasText(criteria.getLocation()) || StringUtils.hasText(criteria.getQ())) {
+            return loader.apply(null);
+        }
+        FilterKey key = new FilterKey(catalogVersion.sequence(), emptyToNull(criteria.getType()),
+                emptyToNull(criteria.getStatus()), pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString(), view);
+        return (Page<T>) filterPages.get(key, loader);
+    }
+
+    /**
+     * Starts following the change feed once the application has started; whatever was cached before is dropped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startFollowing() {
+        follower.reload(byId::invalidateAll);
+    }
+
+    // Drops the ID entries of properties changed on any instance
+    private void invalidate(List<PropertyChange> changes) {
+        changes.forEach(change -> byId.invalidate(change.getPropertyId()));
+    }
+
+    private static String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    // The catalog sequence the page was loaded after; a null type or status means the page was not filtered on it
+    public record FilterKey(long catalogSequence, String type, String status, int page, int size, String sort,
+                            Class<?> view) {
+    }
+}
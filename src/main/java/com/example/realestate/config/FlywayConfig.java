@@ -0,0 +1,23 @@
+package com.example.realestate.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class FlywayConfig {
+
+    // Runs the pending migrations on startup unless realestate.flyway.migrate-on-startup is false. Read at runtime,
+    // unlike spring.flyway.enabled, which AOT processing fixes at build time; the CDS training run in the Dockerfile
+    // has no database and turns migration off with this.
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(Environment environment) {
+        boolean migrate = environment.getProperty("realestate.flyway.migrate-on-startup", Boolean.class, true);
+        return flyway -> {
+            if (migrate) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.realestate.config;
+
+import com.example.realestate.dto.MarketStatsDto;
+import com.example.realestate.dto.PriceBucketDto;
+import com.example.realestate.dto.PricePointDto;
+import com.example.realestate.dto.PropertySummary;
+import com.example.realestate.dto.SimilarPropertyDto;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.SavedSearch;
+import com.example.realestate.model.SearchNotification;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+
+// Response bodies returned through ResponseEntity<?>, whose types AOT processing can't infer from the controller
+// signatures. Registered for reflection so Jackson can serialize them in a native image; no effect on the JVM.
+@Configuration
+@RegisterReflectionForBinding({Property.class, PropertySummary.class, SimilarPropertyDto.class, MarketStatsDto.class,
+        PricePointDto.class, PriceBucketDto.class, SavedSearch.class, SearchNotification.class})
+public class NativeHintsConfig {
+}
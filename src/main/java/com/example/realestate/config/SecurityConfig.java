@@ -1,19 +1,52 @@
 package com.example.realestate.config;
 
+import com.example.realestate.security.JwtAuthenticationFilter;
+import com.example.realestate.security.JwtUtil;
+import com.example.realestate.security.RateLimitFilter;
+import com.example.realestate.security.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${realestate.security.admin-emails:}")
+    private Set<String> adminEmails;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/users/update/batch", // ✅ Bulk update users: admins only
+                                         "/api/users/delete/batch") // ✅ Bulk delete users: admins only
+                                .hasRole("ADMIN") // ✅ Checked first, since /api/users/update/{id} would also match
                         .requestMatchers
                                 ("/api/users/login",  // ✅ Allow login
                                            "/api/users/register", // ✅ Allow register
@@ -26,14 +59,44 @@ public class SecurityConfig {
                                            "/api/properties/{id}", // ✅ Allow get property by ID
                                            "/api/properties/{id}", // ✅ Allow update property
                                            "/api/properties/{id}", // ✅ Allow delete property
-                                           "/api/properties/filter").permitAll() // ✅ Allow register
-                        .anyRequest().authenticated()
+                                           "/api/properties/filter", // ✅ Allow filtered search
+                                           "/api/properties/search", // ✅ Allow full-text search
+                                           "/api/properties/nearby", // ✅ Allow nearby search
+                                           "/api/properties/stats", // ✅ Allow market statistics
+                                           "/api/properties/{id}/similar", // ✅ Allow similar properties
+                                           "/api/properties/{id}/image", // ✅ Allow property image thumbnails
+                                           "/api/properties/{id}/price-history", // ✅ Allow price history of a property
+                                           "/api/properties/price-history", // ✅ Allow price histories of many properties
+                                           "/api/properties/import", // ✅ Allow bulk import
+                                           "/api/properties/changes", // ✅ Allow change feed
+                                           "/api/properties/changes/stream", // ✅ Allow change stream (SSE)
+                                           "/api/reactive/properties", // ✅ Allow reactive properties list and stream
+                                           "/api/reactive/properties/{id}", // ✅ Allow reactive get property by ID
+                                           "/error", // ✅ Allow error responses (forwarded without the original authentication)
+                                           "/actuator/**").permitAll() // ✅ Allow actuator (only served on the loopback management port)
+                        .anyRequest().authenticated() // ✅ Everything else, e.g. /api/users/me/** (saved searches), needs a token
                 )
-                .csrf(csrf -> csrf.disable()); // ✅ Disable CSRF for Postman testing
+                .csrf(csrf -> csrf.disable()) // ✅ Disable CSRF for Postman testing
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // ✅ Token auth, no HTTP session
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))) // ✅ 401 without a valid token
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, adminEmails), UsernamePasswordAuthenticationFilter.class) // ✅ Bearer token authentication
+                .addFilterAfter(new RateLimitFilter(rateLimiter, meterRegistry), JwtAuthenticationFilter.class); // ✅ Rate limits per token subject or IP
 
         return http.build();
     }
-}
-
-
 
+    /**
+     * Encodes new passwords as {bcrypt} hashes with a tunable cost (each +1 doubles the work).
+     * Passwords stored before hashing was introduced have no {id} prefix and are matched as plain text,
+     * then re-hashed on the next successful login.
+     */
+    @Bean
+    @SuppressWarnings("deprecation")  // NoOpPasswordEncoder only reads legacy rows; it never encodes
+    public PasswordEncoder passwordEncoder(@Value("${realestate.security.bcrypt-strength:10}") int bcryptStrength) {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of(
+                "bcrypt", new BCryptPasswordEncoder(bcryptStrength),
+                "noop", NoOpPasswordEncoder.getInstance()));
+        encoder.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return encoder;
+    }
+}
@@ -1,15 +1,64 @@
 package com.example.realestate.controller;
 
+import com.example.realestate.cache.BlobStore;
+import com.example.realestate.dto.ImportReportDto;
+import com.example.realestate.dto.MarketStatsDto;
+import com.example.realestate.dto.NearbyPropertyDto;
+import com.example.realestate.dto.NearbySearchCriteria;
+import com.example.realestate.dto.PriceBucketDto;
+import com.example.realestate.dto.PricePointDto;
+import com.example.realestate.dto.PropertyPatchDto;
+import com.example.realestate.dto.PropertySearchCriteria;
+import com.example.realestate.dto.PropertySummary;
 import com.example.realestate.exception.ResourceNotFoundException;
+import com.example.realestate.index.MarketStatsIndex;
+import com.example.realestate.index.PriceHistoryStore;
 import com.example.realestate.model.Property;
+import com.example.realestate.model.PropertyChange;
+import com.example.realestate.service.PriceHistoryService;
+import com.example.realestate.service.PropertyChangeFeed;
+import com.example.realestate.service.PropertyImageService;
+import com.example.realestate.service.PropertyImageService.ThumbnailSize;
+import com.example.realestate.service.PropertyImportService;
 import com.example.realestate.service.PropertyService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/properties")
@@ -17,9 +66,48 @@ import java.util.List;
 
 public class PropertyController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_SIMILAR = 100;
+    static final String SUMMARY_VIEW = "summary";
+
+    // Binary alternative to JSON (besides application/cbor), chosen with the Accept header
+    static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Request attributes asking Tomcat to send a file region itself, with sendfile(2), after the handler returns
+    static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    // Thumbnails are revalidated with their ETag after this long, so a changed image URL shows up soon
+    static final CacheControl THUMBNAIL_CACHE_CONTROL = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+
+    // Default range of price-history queries, ending now
+    static final Duration DEFAULT_HISTORY_RANGE = Duration.ofDays(365);
+    static final int MAX_HISTORY_PROPERTIES = 10_000;
+    // Upper bound on buckets across all series of one batch query, which is built in memory
+    static final int MAX_HISTORY_BUCKETS = 100_000;
+
     @Autowired
     private PropertyService propertyService;
 
+    @Autowired
+    private PropertyImportService propertyImportService;
+
+    @Autowired
+    private PropertyChangeFeed propertyChangeFeed;
+
+    @Autowired
+    private PropertyImageService propertyImageService;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Create a new property.
      * @param property The property details from the request body.
@@ -32,40 +120,235 @@ public class PropertyController {
     }
 
     /**
-     * Retrieve all properties.
-     * @return A list of all properties with HTTP status 200 (OK).
+     * Bulk-import a JSON array of properties.
+     * Rows are validated and inserted in JDBC batches; invalid rows are reported without aborting the import.
+     * @param body The JSON array.
+     * @return A per-row import report with HTTP status 200 (OK).
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReportDto> importJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(propertyImportService.importJsonArray(body));
+    }
+
+    /**
+     * Bulk-import newline-delimited JSON, one property per line.
+     * @param body The NDJSON feed.
+     * @return A per-row import report with HTTP status 200 (OK).
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDto> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(propertyImportService.importNdjson(body));
+    }
+
+    /**
+     * Bulk-import CSV with a header row of property field names.
+     * @param body The CSV feed.
+     * @return A per-row import report with HTTP status 200 (OK).
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDto> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(propertyImportService.importCsv(body));
+    }
+
+    /**
+     * Retrieve one page of properties using keyset pagination on ID.
+     * When the page is full, the ID to pass as the next cursor is returned in the X-Next-Cursor header.
+     * @param cursor (Optional) The last property ID of the previous page.
+     * @param limit (Optional) The page size, capped at 500.
+     * @param view (Optional) "summary" to return only the listing fields, without descriptions.
+     * @param request Used to answer If-None-Match with 304 Not Modified when nothing has changed.
+     * @return A list of properties with HTTP status 200 (OK), or 304 (Not Modified) if the client's copy is current.
      */
     @GetMapping
-    public ResponseEntity<?> getAllProperties() {
-        List<Property> properties = propertyService.getAllProperties();
-        if (properties.isEmpty()) {
+    public ResponseEntity<?> getAllProperties(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+
+        String etag = catalogETag(request);
+        if (request.checkNotModified(etag)) {
+            return notModified();
+        }
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<?> properties;
+        Long lastId = null;
+        if (SUMMARY_VIEW.equalsIgnoreCase(view)) {
+            List<PropertySummary> summaries = propertyService.getPropertySummariesAfter(cursor, pageSize);
+            if (!summaries.isEmpty()) {
+                lastId = summaries.get(summaries.size() - 1).id();
+            }
+            properties = summaries;
+        } else {
+            List<Property> entities = propertyService.getPropertiesAfter(cursor, pageSize);
+            if (!entities.isEmpty()) {
+                lastId = entities.get(entities.size() - 1).getId();
+            }
+            properties = entities;
+        }
+        if (properties.isEmpty() && cursor == null) {
             return ResponseEntity.ok("No properties found in the database.");
         }
-        return ResponseEntity.ok(properties);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+        if (properties.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(lastId));
+        }
+        return response.body(properties);
+    }
+
+    /**
+     * Stream every property as newline-delimited JSON straight from a database cursor.
+     * Rows are written as they are read, so neither side has to hold the whole catalog in memory.
+     * @return A chunked application/x-ndjson response with HTTP status 200 (OK).
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllProperties() {
+        ObjectWriter writer = objectMapper.writerFor(Property.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> propertyService.streamAllProperties(property -> {
+            try {
+                writer.writeValue(outputStream, property);
+                outputStream.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+
+    /**
+     * Retrieve the property changes (creates, updates and deletes) after a sequence, oldest first.
+     * Pass the X-Next-Cursor header of each response as the next since to sync incrementally.
+     * @param since (Optional) The last change sequence already processed; 0 for the whole feed.
+     * @param limit (Optional) The maximum number of changes, capped at 500.
+     * @return A list of changes with HTTP status 200 (OK); deletes carry a null property.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<List<PropertyChange>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit) {
+
+        List<PropertyChange> changes = propertyChangeFeed.getChangesAfter(since, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(next))
+                .body(changes);
     }
 
+    /**
+     * Stream property changes as Server-Sent Events; each event's ID is the change sequence.
+     * @param since (Optional) The last change sequence already processed; defaults to the latest, i.e. only new changes.
+     * @param lastEventId Sent by a reconnecting EventSource; takes precedence over since.
+     * @return A text/event-stream of changes, kept open until the stream timeout.
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        long from = lastEventId != null ? lastEventId : since != null ? since : propertyChangeFeed.getLastSequence();
+        return propertyChangeFeed.subscribe(from);
+    }
 
     /**
      * Retrieve a property by its ID.
+     * The ETag is the property's version, checked against If-None-Match before the property is loaded.
      * @param id The ID of the property.
-     * @return The property if found, or 404 Not Found if it doesn't exist.
+     * @param request Used to answer If-None-Match with 304 Not Modified when the version is unchanged.
+     * @return The property if found, 304 Not Modified if the client's copy is current, or 404 Not Found if it doesn't exist.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPropertyById(@PathVariable Long id) {
+    public ResponseEntity<?> getPropertyById(@PathVariable Long id, WebRequest request) {
         try {
+            Long version = propertyService.getPropertyVersion(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Property with ID " + id + " not found"));
+            String etag = version + representationSuffix(request);
+            if (request.checkNotModified(etag)) {
+                return notModified();
+            }
             Property property = propertyService.getPropertyById(id);
-            return ResponseEntity.ok(property);
+            // Tag what was actually loaded, in case it changed since the version check
+            return ResponseEntity.ok()
+                    .eTag(property.getVersion() + representationSuffix(request))
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(property);
         } catch (ResourceNotFoundException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
         }
     }
 
 
+    /**
+     * Serve a thumbnail of a property's image. The original is fetched and rendered on the first request, then every
+     * request is sent straight from the on-disk thumbnail cache (with sendfile where the connector supports it).
+     * @param id The ID of the property.
+     * @param size (Optional) small (160px), medium (480px) or large (1024px), the longest side; defaults to medium.
+     * @param request Used to answer If-None-Match with 304 Not Modified, and to hand the file region to Tomcat.
+     * @param response The image with HTTP status 200 (OK); 304 if the client's copy is current; 400 for an unknown size;
+     *                 404 if the property doesn't exist or has no image; 502 if the image can't be fetched or decoded.
+     */
+    @GetMapping("/{id}/image")
+    public void getPropertyImage(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "medium") String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        ThumbnailSize thumbnailSize = ThumbnailSize.parse(size);
+        if (thumbnailSize == null) {
+            writeText(response, HttpStatus.BAD_REQUEST, "size must be small, medium or large");
+            return;
+        }
+        BlobStore.Blob thumbnail;
+        try {
+            thumbnail = propertyImageService.getThumbnail(id, thumbnailSize);
+        } catch (ResourceNotFoundException ex) {
+            writeText(response, HttpStatus.NOT_FOUND, ex.getMessage());
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, THUMBNAIL_CACHE_CONTROL.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + thumbnail.key() + "\"")) {
+            return;
+        }
+        response.setContentType(thumbnail.contentType());
+        response.setContentLengthLong(thumbnail.length());
+        if (request.getMethod().equals("HEAD")) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            // Zero-copy: Tomcat transfers the region from the page cache to the socket once the handler returns
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, thumbnail.file().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, thumbnail.offset());
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, thumbnail.offset() + thumbnail.length());
+            return;
+        }
+        // No sendfile (e.g. HTTP/2 or TLS without it): let transferTo copy the region to the response stream
+        try (FileChannel file = FileChannel.open(thumbnail.file())) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = thumbnail.offset();
+            long end = position + thumbnail.length();
+            while (position < end) {
+                position += file.transferTo(position, end - position, out);
+            }
+        }
+    }
+
     /**
      * Update a property by its ID.
      * @param id The ID of the property to update.
      * @param propertyDetails The updated property details.
-     * @return The updated property if successful, or 404 Not Found if the property doesn't exist.
+     * @return The updated property if successful, 404 Not Found if the property doesn't exist,
+     *         or 409 Conflict if the body carries a stale version.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Property> updateProperty(@PathVariable Long id,@Valid @RequestBody Property propertyDetails) {
@@ -74,6 +357,20 @@ public class PropertyController {
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    /**
+     * Partially update a property; only the fields present in the body are changed.
+     * Include the version you last read to make the update conditional on it.
+     * @param id The ID of the property to update.
+     * @param patch The fields to change.
+     * @return The updated property, 404 Not Found if it doesn't exist, or 409 Conflict if the version is stale.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Property> patchProperty(@PathVariable Long id, @Valid @RequestBody PropertyPatchDto patch) {
+        return propertyService.patchProperty(id, patch)
+                .map(patchedProperty -> new ResponseEntity<>(patchedProperty, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
     /**
      * Delete a property by its ID.
      * @param id The ID of the property to delete.
@@ -92,18 +389,224 @@ public class PropertyController {
 
 
     /**
-     * Search properties by type and optionally by status.
-     * @param type The type of property (e.g., "apartment", "villa").
-     * @param status (Optional) The status of the property (e.g., "available", "sold").
-     * @return A list of matching properties with HTTP status 200 (OK).
+     * Search properties by any combination of type, status, price range, location and free text.
+     * Results are sorted and paged in the database (e.g. ?page=0&size=20&sort=price,desc);
+     * the total number of matches is returned in the X-Total-Count header.
+     * @param criteria The optional filters (type, status, minPrice, maxPrice, location, q).
+     * @param pageable The page, size and sort order; defaults to 50 properties sorted by ID.
+     * @param view (Optional) "summary" to return only the listing fields, without descriptions.
+     * @param request Used to answer If-None-Match with 304 Not Modified when nothing has changed.
+     * @return A list of matching properties with HTTP status 200 (OK), or 304 (Not Modified) if the client's copy is current.
      */
     @GetMapping("/filter")
-    public ResponseEntity<List<Property>> searchProperties(
+    public ResponseEntity<List<?>> searchProperties(
+            @Valid @ModelAttribute PropertySearchCriteria criteria,
+            @PageableDefault(size = 50, sort = "id") Pageable pageable,
+            @RequestParam(required = false) String view,
+            WebRequest request) {
+
+        String etag = catalogETag(request);
+        if (request.checkNotModified(etag)) {
+            return notModified();
+        }
+        Page<?> properties = SUMMARY_VIEW.equalsIgnoreCase(view)
+                ? propertyService.searchPropertySummaries(criteria, pageable)
+                : propertyService.searchProperties(criteria, pageable);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(properties.getTotalElements()))
+                .body(properties.getContent());
+    }
+
+    /**
+     * Full-text search over title, description and location, ranked by relevance.
+     * @param q The words to search for; every word must appear in the property.
+     * @param limit (Optional) The maximum number of results, capped at 500.
+     * @return A list of matching properties, most relevant first, with HTTP status 200 (OK).
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Property>> searchByText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        int maxResults = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return ResponseEntity.ok(propertyService.searchByText(q, maxResults));
+    }
+
+    /**
+     * Find properties near a point, closest first, e.g. ?lat=18.52&lon=73.86&radiusKm=5&type=House.
+     * Without radiusKm the closest properties are returned however far away they are.
+     * @param criteria The point (lat, lon), optional radiusKm, type and status filters, and limit (default 20, max 500).
+     * @return Matching properties, each with its distanceKm, with HTTP status 200 (OK).
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<List<NearbyPropertyDto>> findNearby(@Valid @ModelAttribute NearbySearchCriteria criteria) {
+        return ResponseEntity.ok(propertyService.findNearby(criteria));
+    }
+
+    /**
+     * Find the properties most similar to a given one, e.g. for "related listings" on its detail page.
+     * Answered from an in-memory vector index over type, status, price, location and wording.
+     * @param id The ID of the property.
+     * @param k The number of properties to return (default 10, max 100).
+     * @return The similar properties, most similar first, each with its similarity score, with HTTP status 200 (OK);
+     *         404 if the property doesn't exist.
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> findSimilar(@PathVariable Long id, @RequestParam(defaultValue = "10") int k) {
+        int count = Math.min(Math.max(k, 1), MAX_SIMILAR);
+        return propertyService.findSimilar(id, count)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Property with ID " + id + " not found"));
+    }
+
+    /**
+     * Market statistics served from in-memory aggregates: count, average price and price percentiles
+     * (within 1%), e.g. ?status=For Sale&groupBy=type,location&percentiles=50,90.
+     * @param type (Optional) Only include properties of this type.
+     * @param status (Optional) Only include properties with this status.
+     * @param location (Optional) Only include properties in this location.
+     * @param groupBy (Optional) Dimensions to group by, any of type, status and location; empty for one overall total.
+     * @param percentiles (Optional) Price percentiles to report, between 0 and 100; defaults to 25, 50, 75 and 90.
+     * @return One entry per group, largest first, with HTTP status 200 (OK), or 400 for unknown dimensions or percentiles.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getMarketStats(
             @RequestParam(required = false) String type,
-            @RequestParam(required = false) String status) {
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String location,
+            @RequestParam(defaultValue = "type,status,location") List<String> groupBy,
+            @RequestParam(defaultValue = "25,50,75,90") List<Double> percentiles) {
 
-        List<Property> properties = propertyService.searchProperties(type, status);
-        return new ResponseEntity<>(properties, HttpStatus.OK);
+        Set<String> dimensions = new LinkedHashSet<>();
+        for (String dimension : groupBy) {
+            if (dimension.isBlank()) {
+                continue;
+            }
+            if (!MarketStatsIndex.DIMENSIONS.contains(dimension)) {
+                return ResponseEntity.badRequest().body("groupBy accepts type, status and location");
+            }
+            dimensions.add(dimension);
+        }
+        if (percentiles.stream().anyMatch(p -> p == null || p < 0 || p > 100)) {
+            return ResponseEntity.badRequest().body("percentiles must be between 0 and 100");
+        }
+        List<MarketStatsDto> stats = propertyService.getMarketStats(type, status, location, dimensions, percentiles);
+        return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Price history of a property: every price change in the range, or the range downsampled into buckets when an
+     * interval is given (e.g. ?interval=7d for weekly open/high/low/close).
+     * @param id The ID of the property.
+     * @param from (Optional) The start of the range, ISO-8601; defaults to a year before to.
+     * @param to (Optional) The end of the range, exclusive; defaults to now.
+     * @param interval (Optional) The bucket width, e.g. 1d or PT6H; at most 1000 buckets per range.
+     * @return The price points or buckets, oldest first, with HTTP status 200 (OK); 400 for an invalid range;
+     *         404 if the property doesn't exist.
+     */
+    @GetMapping("/{id}/price-history")
+    public ResponseEntity<?> getPriceHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String interval) {
+
+        if (propertyService.getPropertyVersion(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Property with ID " + id + " not found");
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_HISTORY_RANGE);
+        if (interval == null) {
+            List<PricePointDto> points = priceHistoryService.getPriceHistory(id, start, end);
+            return ResponseEntity.ok(points);
+        }
+        try {
+            long intervalMillis = DurationStyle.detectAndParse(interval).toMillis();
+            return ResponseEntity.ok(priceHistoryService.getPriceBuckets(List.of(id), start, end, intervalMillis).get(id));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    /**
+     * Downsampled price history of many properties at once, e.g. for trend charts over a whole listing page.
+     * Also accepts the parameters as a form POST, since thousands of IDs don't fit in a request line.
+     * @param ids The IDs of the properties, at most 10000.
+     * @param from (Optional) The start of the range, ISO-8601; defaults to a year before to.
+     * @param to (Optional) The end of the range, exclusive; defaults to now.
+     * @param interval (Optional) The bucket width, e.g. 7d or PT6H; defaults to 1 day, at most 1000 buckets per range
+     *                 and 100000 across all IDs.
+     * @return Each property's buckets keyed by ID, with HTTP status 200 (OK); properties without history (or that
+     *         don't exist) map to an empty list. 400 for too many IDs or buckets, or an invalid range.
+     */
+    @RequestMapping(path = "/price-history", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<?> getPriceHistories(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "1d") String interval) {
+
+        if (ids.size() > MAX_HISTORY_PROPERTIES) {
+            return ResponseEntity.badRequest().body("At most " + MAX_HISTORY_PROPERTIES + " ids per request");
+        }
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_HISTORY_RANGE);
+        try {
+            long intervalMillis = DurationStyle.detectAndParse(interval).toMillis();
+            Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+            if (uniqueIds.size() * PriceHistoryStore.bucketCount(start, end, intervalMillis) > MAX_HISTORY_BUCKETS) {
+                return ResponseEntity.badRequest().body("At most " + MAX_HISTORY_BUCKETS + " buckets across all ids per request");
+            }
+            Map<Long, List<PriceBucketDto>> series = priceHistoryService.getPriceBuckets(uniqueIds, start, end, intervalMillis);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(ex.getMessage());
+        }
+    }
+
+    private static void writeText(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    // Weak, because Tomcat only gzips responses without a strong ETag; If-None-Match compares weakly anyway
+    private String catalogETag(WebRequest request) {
+        return "W/\"" + propertyService.getCatalogVersion() + representationSuffix(request) + "\"";
+    }
+
+    // JSON, CBOR and Smile responses share URLs, so each format gets its own ETag; picks the format the Accept header
+    // prefers the same way content negotiation does (JSON for */* or no header)
+    private static String representationSuffix(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> acceptable = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "-cbor";
+            }
+            if (mediaType.isCompatibleWith(APPLICATION_SMILE)) {
+                return "-smile";
+            }
+        }
+        return "";
+    }
+
+    // checkNotModified has already set the status and ETag; clients and CDNs must revalidate before every reuse
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
 }
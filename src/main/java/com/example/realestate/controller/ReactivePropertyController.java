@@ -0,0 +1,73 @@
+package com.example.realestate.controller;
+
+import com.example.realestate.model.Property;
+import com.example.realestate.service.ReactivePropertyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking versions of the hot property reads, served over R2DBC. The request thread is released while the
+ * query runs, so in-flight requests are bounded by the R2DBC pool's queue rather than by Tomcat's thread pool.
+ * Responses match the corresponding PropertyController endpoints; writes still go through PropertyController.
+ */
+@RestController
+@RequestMapping("/api/reactive/properties")
+@CrossOrigin(origins="http://localhost:3000")
+public class ReactivePropertyController {
+
+    @Autowired
+    private ReactivePropertyService reactivePropertyService;
+
+    /**
+     * Retrieve one page of properties using keyset pagination on ID, as GET /api/properties does.
+     * @param cursor (Optional) The last property ID of the previous page.
+     * @param limit (Optional) The page size, capped at 500.
+     * @return A list of properties with HTTP status 200 (OK), and X-Next-Cursor when the page is full.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<Property>>> getAllProperties(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        int pageSize = Math.min(Math.max(limit, 1), PropertyController.MAX_PAGE_SIZE);
+        return reactivePropertyService.getPropertiesAfter(cursor, pageSize)
+                .collectList()
+                .map(properties -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (properties.size() == pageSize) {
+                        response.header(PropertyController.NEXT_CURSOR_HEADER,
+                                String.valueOf(properties.get(properties.size() - 1).getId()));
+                    }
+                    return response.body(properties);
+                });
+    }
+
+    /**
+     * Stream every property as newline-delimited JSON. Rows are fetched from the database only as fast as the
+     * client reads them, so a slow client holds back the query instead of filling server memory.
+     * @return A chunked application/x-ndjson response with HTTP status 200 (OK).
+     */
+    @GetMapping(params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Property> streamAllProperties() {
+        return reactivePropertyService.streamAllProperties();
+    }
+
+    /**
+     * Retrieve a property by its ID.
+     * @param id The ID of the property.
+     * @return The property if found, or 404 Not Found if it doesn't exist.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<?>> getPropertyById(@PathVariable long id) {
+        return reactivePropertyService.getPropertyById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND).body("Property with ID " + id + " not found"));
+    }
+}
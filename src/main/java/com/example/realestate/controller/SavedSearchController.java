@@ -0,0 +1,93 @@
+package com.example.realestate.controller;
+
+import com.example.realestate.model.SavedSearch;
+import com.example.realestate.model.SearchNotification;
+import com.example.realestate.service.SavedSearchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.List;
+
+// Saved searches and their notifications for the authenticated user (the JWT subject), so no user ID is ever passed
+@RestController
+@RequestMapping("/api/users/me")
+@CrossOrigin(origins="http://localhost:3000")//cross-origin requests useful for frontend-backend communication
+
+public class SavedSearchController {
+
+    private static final int MAX_NOTIFICATIONS_PER_PAGE = 1000;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    /**
+     * Endpoint to list the saved searches of the authenticated user.
+     * @param principal The authenticated user.
+     * @return The saved searches, oldest first, with HTTP status 200 (OK).
+     */
+    @GetMapping("/saved-searches")
+    public ResponseEntity<List<SavedSearch>> getSavedSearches(Principal principal) {
+        Long userId = savedSearchService.getUserId(principal.getName());
+        return ResponseEntity.ok(savedSearchService.getSavedSearches(userId));
+    }
+
+
+    /**
+     * Endpoint to save a search. Listings created or changed from now on that match it are added to the
+     * user's notifications. Criteria left unset match anything.
+     * @param search The name and criteria (type, status, minPrice, maxPrice, location) from the request body.
+     * @param principal The authenticated user.
+     * @return The saved search with HTTP status 201 (Created), 400 if minPrice exceeds maxPrice,
+     * or 409 if the user already has the maximum number of saved searches.
+     */
+    @PostMapping("/saved-searches")
+    public ResponseEntity<?> createSavedSearch(@Valid @RequestBody SavedSearch search, Principal principal) {
+        if (search.getMinPrice() != null && search.getMaxPrice() != null && search.getMinPrice() > search.getMaxPrice()) {
+            return ResponseEntity.badRequest().body("minPrice must not exceed maxPrice");
+        }
+        Long userId = savedSearchService.getUserId(principal.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearchService.createSavedSearch(userId, search));
+    }
+
+
+    /**
+     * Endpoint to delete one of the authenticated user's saved searches, along with its notifications.
+     * @param id The ID of the saved search.
+     * @param principal The authenticated user.
+     * @return A success message if deleted, or 404 Not Found if the user has no such saved search.
+     */
+    @DeleteMapping("/saved-searches/{id}")
+    public ResponseEntity<String> deleteSavedSearch(@PathVariable Long id, Principal principal) {
+        Long userId = savedSearchService.getUserId(principal.getName());
+        if (savedSearchService.deleteSavedSearch(userId, id)) {
+            return ResponseEntity.ok("Saved search deleted successfully");
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Saved search not found");
+        }
+    }
+
+
+    /**
+     * Endpoint to read the authenticated user's notifications of listings matching their saved searches.
+     * Pass the ID of the last notification seen as after to fetch only newer ones.
+     * @param after The last notification ID already seen; 0 for all of them.
+     * @param limit The maximum number of notifications to return (up to 1000).
+     * @param principal The authenticated user.
+     * @return The notifications, oldest first, with HTTP status 200 (OK).
+     */
+    @GetMapping("/notifications")
+    public ResponseEntity<?> getNotifications(@RequestParam(defaultValue = "0") long after,
+                                              @RequestParam(defaultValue = "100") int limit,
+                                              Principal principal) {
+        if (limit < 1 || limit > MAX_NOTIFICATIONS_PER_PAGE) {
+            return ResponseEntity.badRequest().body("limit must be between 1 and " + MAX_NOTIFICATIONS_PER_PAGE);
+        }
+        Long userId = savedSearchService.getUserId(principal.getName());
+        List<SearchNotification> notifications = savedSearchService.getNotifications(userId, after, limit);
+        return ResponseEntity.ok(notifications);
+    }
+}
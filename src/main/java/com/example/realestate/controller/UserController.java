@@ -1,12 +1,21 @@
 package com.example.realestate.controller;
 
+import com.example.realestate.dto.BatchResultDto;
 import com.example.realestate.dto.LoginRequestDto;
+import com.example.realestate.dto.UserBatchDeleteDto;
+import com.example.realestate.dto.UserBatchUpdateDto;
+import com.example.realestate.dto.UserSummary;
 import com.example.realestate.model.User;
 import com.example.realestate.service.UserService;
 import jakarta.validation.Valid;
+import jakarta.validation.groups.Default;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -28,7 +37,7 @@ public class UserController {
      * @return The created user with HTTP status 201 (Created).
      */
     @PostMapping("/register")
-    public ResponseEntity<User> registerUser(@Valid @RequestBody User user) {
+    public ResponseEntity<User> registerUser(@Validated({Default.class, User.RawPassword.class}) @RequestBody User user) {
         User createdUser = userService.registerUser(user);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
@@ -54,12 +63,17 @@ public class UserController {
 
 
     /**
-     * Endpoint to retrieve all users.
-     * @return A list of all users.
+     * Endpoint to list users a page at a time (e.g. ?page=0&size=100&sort=email), without their passwords;
+     * the total number of users is returned in the X-Total-Count header.
+     * @param pageable The page, size and sort order; defaults to 50 users sorted by ID.
+     * @return A list of user summaries with HTTP status 200 (OK).
      */
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<UserSummary>> getAllUsers(@PageableDefault(size = 50, sort = "id") Pageable pageable) {
+        Page<UserSummary> users = userService.getUserSummaries(pageable);
+        return ResponseEntity.ok()
+                .header(PropertyController.TOTAL_COUNT_HEADER, String.valueOf(users.getTotalElements()))
+                .body(users.getContent());
     }
 
 
@@ -70,7 +84,7 @@ public class UserController {
      * @return The updated user if found, or 404 Not Found if the user doesn't exist.
      */
     @PutMapping("/update/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id,@Valid @RequestBody User userDetails) {
+    public ResponseEntity<User> updateUser(@PathVariable Long id,@Validated({Default.class, User.RawPassword.class}) @RequestBody User userDetails) {
         Optional<User> updatedUser = userService.updateUserById(id, userDetails);
         return updatedUser
                 .map(user -> ResponseEntity.ok(user))
@@ -92,4 +106,30 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found");
         }
     }
+
+
+    /**
+     * Endpoint to update the email and/or name of many users at once, in a single statement and transaction.
+     * Fields left null are unchanged; if any new email is already taken, nothing is updated (409 Conflict).
+     * Admins only (see realestate.security.admin-emails).
+     * @param batch The per-user changes, at most 100000.
+     * @return How many users were updated and which IDs were not found, with HTTP status 200 (OK).
+     */
+    @PutMapping("/update/batch")
+    public ResponseEntity<BatchResultDto> updateUsers(@Valid @RequestBody UserBatchUpdateDto batch) {
+        return ResponseEntity.ok(userService.updateUsers(batch.getUsers()));
+    }
+
+
+    /**
+     * Endpoint to delete many users at once, in a single statement and transaction.
+     * Uses POST because request bodies on DELETE are dropped by some clients and proxies.
+     * Admins only (see realestate.security.admin-emails).
+     * @param batch The IDs of the users to delete, at most 100000.
+     * @return How many users were deleted and which IDs were not found, with HTTP status 200 (OK).
+     */
+    @PostMapping("/delete/batch")
+    public ResponseEntity<BatchResultDto> deleteUsers(@Valid @RequestBody UserBatchDeleteDto batch) {
+        return ResponseEntity.ok(userService.deleteUsers(batch.getIds()));
+    }
 }
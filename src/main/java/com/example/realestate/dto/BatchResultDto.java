@@ -0,0 +1,10 @@
+package com.example.realestate.dto;
+
+import java.util.List;
+
+// Outcome of a bulk user update or delete: how many rows changed, and which requested IDs didn't exist.
+public record BatchResultDto(
+        int requested,
+        int affected,
+        List<Long> notFound) {
+}
@@ -0,0 +1,58 @@
+package com.example.realestate.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of a bulk import: totals plus one entry per rejected row.
+public class ImportReportDto {
+
+    // Keeps the report small when a whole feed is malformed
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long received;
+    private long imported;
+    private long failed;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void recordImported(int count) {
+        received += count;
+        imported += count;
+    }
+
+    public void recordFailure(long row, String message) {
+        received++;
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    // Getters
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    // Row numbers are 1-based positions in the uploaded feed (data rows only for CSV)
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.realestate.dto;
+
+import java.util.Map;
+
+// Price statistics for one group of /api/properties/stats; a dimension the results weren't grouped by is null.
+public record MarketStatsDto(
+        String type,
+        String status,
+        String location,
+        long count,
+        double averagePrice,
+        Map<String, Double> pricePercentiles) {
+}
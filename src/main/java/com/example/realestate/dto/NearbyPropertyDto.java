@@ -0,0 +1,10 @@
+package com.example.realestate.dto;
+
+import com.example.realestate.model.Property;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// A nearby-search result: the property's own fields plus its distance from the search point.
+public record NearbyPropertyDto(
+        @JsonUnwrapped Property property,
+        double distanceKm) {
+}
@@ -0,0 +1,14 @@
+package com.example.realestate.dto;
+
+import java.time.Instant;
+
+// A downsampled stretch of a property's price history: the price in effect when the bucket starts (open),
+// its extremes and final value within the bucket, and how many price changes happened in it.
+public record PriceBucketDto(
+        Instant start,
+        double open,
+        double high,
+        double low,
+        double close,
+        int changes) {
+}
@@ -0,0 +1,9 @@
+package com.example.realestate.dto;
+
+import java.time.Instant;
+
+// One price change of a property: the price that took effect at that time.
+public record PricePointDto(
+        Instant time,
+        double price) {
+}
@@ -0,0 +1,159 @@
+package com.example.realestate.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+// Body of PATCH /api/properties/{id}: only non-null fields are written.
+public class PropertyPatchDto {
+
+    // Absent fields stay unchanged, but a present one must not be blank (Property requires them all)
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
+    @Pattern(regexp = NOT_BLANK, message = "Title cannot be blank")
+    @Size(min = 2, max = 30, message = "Title must be at least 3 characters/ title exceed 30 characters")
+    private String title;
+
+    @Size(max = 1000, message = "Description can be up to 1000 characters")
+    private String description;
+
+    @Pattern(regexp = NOT_BLANK, message = "Location cannot be blank")
+    @Size(min = 2, max = 30, message = "Location must be at least 3 characters")
+    private String location;
+
+    @Positive(message = "Price must be positive")
+    private Double price;
+
+    @Pattern(regexp = NOT_BLANK, message = "Image URL cannot be blank")
+    @Size(min = 1, message = "Image URL cannot be empty")
+    private String image;
+
+    @Pattern(regexp = NOT_BLANK, message = "Type cannot be blank")
+    @Size(min = 2, max = 16, message = "Type must be at least 3 characters")
+    private String type;
+
+    @Pattern(regexp = NOT_BLANK, message = "Status cannot be blank")
+    @Size(min = 2, max = 16, message = "Status must be at least 3 characters")
+    private String status;
+
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    // The version the client last read; when set, the patch only applies if it is still current
+    private Long version;
+
+    // Default constructor
+    public PropertyPatchDto() {
+    }
+
+    // True when the patch doesn't change any column
+    public boolean isEmpty() {
+        return title == null && description == null && location == null && price == null
+                && image == null && type == null && status == null && latitude == null && longitude == null;
+    }
+
+    // Getters and Setters
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyPatchDto{" +
+                "title='" + title + '\'' +
+                ", description='" + description + '\'' +
+                ", location='" + location + '\'' +
+                ", price=" + price +
+                ", image='" + image + '\'' +
+                ", type='" + type + '\'' +
+                ", status='" + status + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", version=" + version +
+                '}';
+    }
+}
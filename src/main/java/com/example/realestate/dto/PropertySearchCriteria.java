@@ -0,0 +1,98 @@
+package com.example.realestate.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+
+// Optional filters accepted by /api/properties/filter; a null field means "don't filter on it".
+public class PropertySearchCriteria {
+
+    private String type;
+
+    private String status;
+
+    @PositiveOrZero(message = "Minimum price cannot be negative")
+    private Double minPrice;
+
+    @PositiveOrZero(message = "Maximum price cannot be negative")
+    private Double maxPrice;
+
+    private String location;
+
+    // Free-text term matched against title and description
+    private String q;
+
+    // Default constructor
+    public PropertySearchCriteria() {
+    }
+
+    // Parameterized constructor
+    public PropertySearchCriteria(String type, String status, Double minPrice, Double maxPrice, String location, String q) {
+        this.type = type;
+        this.status = status;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.location = location;
+        this.q = q;
+    }
+
+    // Getters and Setters
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getQ() {
+        return q;
+    }
+
+    public void setQ(String q) {
+        this.q = q;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertySearchCriteria{" +
+                "type='" + type + '\'' +
+                ", status='" + status + '\'' +
+                ", minPrice=" + minPrice +
+                ", maxPrice=" + maxPrice +
+                ", location='" + location + '\'' +
+                ", q='" + q + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.realestate.dto;
+
+// Card/grid view of a property: everything a listing page shows, without the long description.
+// Built directly by JPQL constructor expressions, so only these columns are selected.
+public record PropertySummary(
+        Long id,
+        String title,
+        Double price,
+        String location,
+        String image,
+        String type,
+        String status) {
+}
@@ -0,0 +1,10 @@
+package com.example.realestate.dto;
+
+import com.example.realestate.model.Property;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+// A "similar properties" result: the property's own fields plus its cosine similarity (at most 1) to the one asked about.
+public record SimilarPropertyDto(
+        @JsonUnwrapped Property property,
+        double score) {
+}
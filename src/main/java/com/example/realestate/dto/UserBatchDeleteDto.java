@@ -0,0 +1,32 @@
+package com.example.realestate.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// Body of POST /api/users/delete/batch: the IDs of the users to delete.
+public class UserBatchDeleteDto {
+
+    // Largest batch accepted by the bulk user endpoints; each batch runs as one transaction
+    public static final int MAX_BATCH_SIZE = 100_000;
+
+    @NotEmpty(message = "At least one ID is required")
+    @Size(max = MAX_BATCH_SIZE, message = "At most 100000 IDs per batch")
+    private List<@NotNull(message = "IDs cannot be null") Long> ids;
+
+    // Default constructor
+    public UserBatchDeleteDto() {
+    }
+
+    // Getters and Setters
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
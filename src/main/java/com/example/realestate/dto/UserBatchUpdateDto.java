@@ -0,0 +1,44 @@
+package com.example.realestate.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// Body of PUT /api/users/update/batch: per-user changes, where only non-null fields are written.
+// Passwords can't be changed in bulk; each one would need its own bcrypt hash (see PasswordVerifier).
+public class UserBatchUpdateDto {
+
+    @NotEmpty(message = "At least one user is required")
+    @Size(max = UserBatchDeleteDto.MAX_BATCH_SIZE, message = "At most 100000 users per batch")
+    private List<@Valid Entry> users;
+
+    // Default constructor
+    public UserBatchUpdateDto() {
+    }
+
+    // Getters and Setters
+
+    public List<Entry> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<Entry> users) {
+        this.users = users;
+    }
+
+    public record Entry(
+            @NotNull(message = "ID is required")
+            Long id,
+
+            @Email(message = "Invalid email format")
+            @Size(min = 1, message = "Email cannot be empty")
+            String email,
+
+            @Size(min = 2, max = 16, message = "Name must be at least 6 characters")
+            String name) {
+    }
+}
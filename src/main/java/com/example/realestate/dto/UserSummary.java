@@ -0,0 +1,9 @@
+package com.example.realestate.dto;
+
+// Listing view of a user: identity fields only, never the password hash.
+// Built directly by a JPQL constructor expression, so only these columns are selected.
+public record UserSummary(
+        Long id,
+        String email,
+        String name) {
+}
@@ -0,0 +1,58 @@
+package com.example.realestate.event;
+
+import com.example.realestate.model.Property;
+
+// Published by PropertyService after every create, update and delete.
+// previous and current are detached snapshots, so listeners may keep or inspect them safely.
+public class PropertyChangedEvent {
+
+    public enum ChangeType { CREATED, UPDATED, DELETED }
+
+    private final ChangeType changeType;
+    private final Long propertyId;
+    private final Property previous;   // State before the change; null on create
+    private final Property current;    // State after the change; null on delete
+
+    private PropertyChangedEvent(ChangeType changeType, Long propertyId, Property previous, Property current) {
+        this.changeType = changeType;
+        this.propertyId = propertyId;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public static PropertyChangedEvent created(Property current) {
+        return new PropertyChangedEvent(ChangeType.CREATED, current.getId(), null, current);
+    }
+
+    public static PropertyChangedEvent updated(Property previous, Property current) {
+        return new PropertyChangedEvent(ChangeType.UPDATED, current.getId(), previous, current);
+    }
+
+    public static PropertyChangedEvent deleted(Property previous) {
+        return new PropertyChangedEvent(ChangeType.DELETED, previous.getId(), previous, null);
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public Property getPrevious() {
+        return previous;
+    }
+
+    public Property getCurrent() {
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyChangedEvent{" +
+                "changeType=" + changeType +
+                ", propertyId=" + propertyId +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.realestate.exception;
+
+// Thrown when a property's image can't be fetched from its origin or decoded, so no thumbnail can be made.
+public class ImageFetchException extends RuntimeException {
+    public ImageFetchException(String message) {
+        super(message);
+    }
+
+    public ImageFetchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
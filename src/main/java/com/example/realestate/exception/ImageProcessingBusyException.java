@@ -0,0 +1,8 @@
+package com.example.realestate.exception;
+
+// Thrown when every thumbnail-rendering slot stays busy past the wait timeout, e.g. on a cold cache.
+public class ImageProcessingBusyException extends RuntimeException {
+    public ImageProcessingBusyException(String message) {
+        super(message);
+    }
+}
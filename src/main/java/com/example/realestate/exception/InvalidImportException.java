@@ -0,0 +1,8 @@
+package com.example.realestate.exception;
+
+// Thrown when an uploaded import feed can't be read at all (as opposed to individual bad rows).
+public class InvalidImportException extends RuntimeException {
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
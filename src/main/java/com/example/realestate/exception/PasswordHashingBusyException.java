@@ -0,0 +1,8 @@
+package com.example.realestate.exception;
+
+// Thrown when every password-hashing slot stays busy past the wait timeout, e.g. during a login storm.
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.realestate.exception;
+
+// Thrown when a user tries to save more searches than realestate.searches.max-per-user allows.
+public class SavedSearchLimitException extends RuntimeException {
+    public SavedSearchLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index over property coordinates, for radius and nearest-neighbour searches.
+ * <p>
+ * The globe is split into a fixed grid of 0.02° cells (about 2.2 km north-south); each non-empty cell keeps its
+ * properties in parallel arrays of IDs, coordinates, type and status. A radius query only visits the cells
+ * overlapping the circle's bounding box, and a k-nearest query repeats radius queries with a growing radius
+ * until it has k hits. Distances are great-circle (haversine) kilometres.
+ */
+@Component
+public class GeoIndex implements PropertyIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    // Half the earth's circumference: no two points are farther apart than this
+    static final double MAX_DISTANCE_KM = Math.PI * EARTH_RADIUS_KM;
+
+    private static final double CELL_DEGREES = 0.02;
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+
+    // First radius tried by a k-nearest search, multiplied by 4 until enough properties are found
+    private static final double INITIAL_NEAREST_RADIUS_KM = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, Cell> cells = new HashMap<>();
+    private final Map<Long, Integer> cellByPropertyId = new HashMap<>();
+    // One shared instance per distinct type/status string, so a large index doesn't hold millions of copies
+    private final Map<String, String> canonicalStrings = new HashMap<>();
+
+    @Override
+    public void upsert(Property property) {
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+            remove(property.getId());   // Coordinates may have been cleared
+            return;
+        }
+        double lat = property.getLatitude();
+        double lon = property.getLongitude();
+        int cellKey = cellKey(row(lat), column(lon));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(property.getId());
+            cells.computeIfAbsent(cellKey, key -> new Cell())
+                    .add(property.getId(), lat, lon, canonical(property.getType()), canonical(property.getStatus()));
+            cellByPropertyId.put(property.getId(), cellKey);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellByPropertyId.clear();
+            canonicalStrings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the properties within a radius of a point, closest first.
+     * @param lat The latitude of the centre.
+     * @param lon The longitude of the centre.
+     * @param radiusKm The search radius in kilometres.
+     * @param type (Optional) Only return properties of this type.
+     * @param status (Optional) Only return properties with this status.
+     * @param limit The maximum number of hits to return.
+     * @return Up to limit hits ordered by ascending distance.
+     */
+    public List<GeoHit> withinRadius(double lat, double lon, double radiusKm, String type, String status, int limit) {
+        if (limit <= 0 || radiusKm < 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return withinRadiusLocked(lat, lon, Math.min(radiusKm, MAX_DISTANCE_KM), type, status, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the k properties closest to a point, closest first.
+     * @param lat The latitude of the point.
+     * @param lon The longitude of the point.
+     * @param type (Optional) Only return properties of this type.
+     * @param status (Optional) Only return properties with this status.
+     * @param k The number of properties to return.
+     * @return Up to k hits ordered by ascending distance.
+     */
+    public List<GeoHit> nearest(double lat, double lon, String type, String status, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            // Anything outside the current radius is farther than every hit inside it,
+            // so once the radius holds k hits they are the k nearest
+            double radiusKm = INITIAL_NEAREST_RADIUS_KM;
+            while (true) {
+                List<GeoHit> hits = withinRadiusLocked(lat, lon, radiusKm, type, status, k);
+                if (hits.size() >= k || radiusKm >= MAX_DISTANCE_KM) {
+                    return hits;
+                }
+                radiusKm = Math.min(radiusKm * 4, MAX_DISTANCE_KM);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of properties with coordinates currently indexed.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellByPropertyId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<GeoHit> withinRadiusLocked(double lat, double lon, double radiusKm, String type, String status, int limit) {
+        // Max-heap on distance holding the best `limit` hits so far
+        PriorityQueue<GeoHit> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(GeoHit::distanceKm).reversed());
+        double latDelta = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = lat - latDelta;
+        double maxLat = lat + latDelta;
+        int firstRow = row(Math.max(minLat, -90));
+        int lastRow = row(Math.min(maxLat, 90));
+
+        // Longitude span of the circle at its widest; a circle reaching a pole covers every longitude
+        int firstColumn;
+        int columns;
+        double lonDelta = 360;
+        double sinRatio = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(lat));
+        if (minLat <= -90 || maxLat >= 90 || radiusKm / EARTH_RADIUS_KM >= Math.PI / 2 || sinRatio >= 1) {
+            firstColumn = 0;
+            columns = LON_CELLS;
+        } else {
+            lonDelta = Math.toDegrees(Math.asin(sinRatio));
+            firstColumn = (int) Math.floor((lon - lonDelta + 180) / CELL_DEGREES);
+            columns = Math.min(LON_CELLS, (int) Math.floor((lon + lonDelta + 180) / CELL_DEGREES) - firstColumn + 1);
+        }
+
+        Query query = new Query(lat, lon, radiusKm, latDelta, lonDelta, type, status, limit, best);
+        long boxCells = (long) (lastRow - firstRow + 1) * columns;
+        if (boxCells > cells.size()) {
+            // Sparse index or huge radius: scanning the populated cells is cheaper than walking the box
+            cells.values().forEach(query::scan);
+        } else {
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int i = 0; i < columns; i++) {
+                    Cell cell = cells.get(cellKey(row, Math.floorMod(firstColumn + i, LON_CELLS)));
+                    if (cell != null) {
+                        query.scan(cell);
+                    }
+                }
+            }
+        }
+
+        GeoHit[] sorted = new GeoHit[best.size()];
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            sorted[i] = best.poll();
+        }
+        return Arrays.asList(sorted);
+    }
+
+    private void removeLocked(Long id) {
+        Integer cellKey = cellByPropertyId.remove(id);
+        if (cellKey != null) {
+            Cell cell = cells.get(cellKey);
+            if (cell.remove(id) == 0) {
+                cells.remove(cellKey);
+            }
+        }
+    }
+
+    private String canonical(String value) {
+        return value == null ? null : canonicalStrings.computeIfAbsent(value, key -> key);
+    }
+
+    private static int row(double lat) {
+        return Math.min((int) Math.floor((lat + 90) / CELL_DEGREES), LAT_CELLS - 1);
+    }
+
+    private static int column(double lon) {
+        return Math.floorMod((int) Math.floor((lon + 180) / CELL_DEGREES), LON_CELLS);
+    }
+
+    private static int cellKey(int row, int column) {
+        return row * LON_CELLS + column;
+    }
+
+    // Great-circle distance in kilometres
+    static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * A property found by a spatial search.
+     * @param propertyId The ID of the property.
+     * @param distanceKm Its great-circle distance from the search point.
+     */
+    public record GeoHit(long propertyId, double distanceKm) {
+    }
+
+    // One radius search in progress; collects matching entries cell by cell
+    private record Query(double lat, double lon, double radiusKm, double latDelta, double lonDelta,
+                         String type, String status, int limit, PriorityQueue<GeoHit> best) {
+
+        void scan(Cell cell) {
+            for (int i = 0; i < cell.size; i++) {
+                // Cheap bounding-box rejection before the trigonometry
+                if (Math.abs(cell.lats[i] - lat) > latDelta || longitudeGap(cell.lons[i]) > lonDelta) {
+                    continue;
+                }
+                if ((type != null && !type.equals(cell.types[i])) || (status != null && !status.equals(cell.statuses[i]))) {
+                    continue;
+                }
+                double distance = haversineKm(lat, lon, cell.lats[i], cell.lons[i]);
+                if (distance > radiusKm || (best.size() == limit && distance >= best.peek().distanceKm())) {
+                    continue;
+                }
+                best.offer(new GeoHit(cell.ids[i], distance));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+
+        // Angular longitude difference, accounting for the antimeridian
+        private double longitudeGap(double otherLon) {
+            double gap = Math.abs(otherLon - lon);
+            return gap > 180 ? 360 - gap : gap;
+        }
+    }
+
+    // The properties in one grid cell, in parallel growable arrays; removal swaps the last entry into the gap
+    private static final class Cell {
+
+        private long[] ids = new long[4];
+        private double[] lats = new double[4];
+        private double[] lons = new double[4];
+        private String[] types = new String[4];
+        private String[] statuses = new String[4];
+        private int size;
+
+        void add(long id, double lat, double lon, String type, String status) {
+            if (size == ids.length) {
+                int newLength = size * 2;
+                ids = Arrays.copyOf(ids, newLength);
+                lats = Arrays.copyOf(lats, newLength);
+                lons = Arrays.copyOf(lons, newLength);
+                types = Arrays.copyOf(types, newLength);
+                statuses = Arrays.copyOf(statuses, newLength);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lons[size] = lon;
+            types[size] = type;
+            statuses[size] = status;
+            size++;
+        }
+
+        int remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lons[i] = lons[size];
+                    types[i] = types[size];
+                    statuses[i] = statuses[size];
+                    types[size] = null;
+                    statuses[size] = null;
+                    break;
+                }
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.realestate.index;
+
+import com.example.realestate.dto.MarketStatsDto;
+import com.example.realestate.model.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pre-aggregated price statistics per (type, status, location) bucket, maintained incrementally.
+ * <p>
+ * Each bucket holds a count, a price total in cents and a {@link PriceSketch} for percentiles. The bucket and
+ * price each property contributed are remembered by ID, so updates and deletes subtract exactly what was
+ * added without needing the previous row. Reads merge the matching buckets, so they cost O(buckets), not O(rows).
+ */
+@Component
+public class MarketStatsIndex implements PropertyIndex {
+
+    public static final Set<String> DIMENSIONS = Set.of("type", "status", "location");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<BucketKey, Bucket> buckets = new HashMap<>();
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    @Override
+    public void upsert(Property property) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(property.getId());
+            if (property.getPrice() == null) {
+                return;
+            }
+            BucketKey key = new BucketKey(property.getType(), property.getStatus(), property.getLocation());
+            buckets.computeIfAbsent(key, k -> new Bucket()).add(property.getPrice());
+            contributions.put(property.getId(), new Contribution(key, property.getPrice()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            contributions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregates the buckets matching the filters, grouped by the chosen dimensions.
+     * @param type (Optional) Only include properties of this type.
+     * @param status (Optional) Only include properties with this status.
+     * @param location (Optional) Only include properties in this location.
+     * @param groupBy The dimensions to group by, a subset of {@link #DIMENSIONS}; empty for one overall total.
+     * @param percentiles The price percentiles to report, each between 0 and 100.
+     * @return One entry per group, largest first.
+     */
+    public List<MarketStatsDto> stats(String type, String status, String location, Set<String> groupBy, List<Double> percentiles) {
+        Map<BucketKey, Bucket> groups = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+                BucketKey key = entry.getKey();
+                if ((type != null && !type.equals(key.type()))
+                        || (status != null && !status.equals(key.status()))
+                        || (location != null && !location.equals(key.location()))) {
+                    continue;
+                }
+                BucketKey group = new BucketKey(
+                        groupBy.contains("type") ? key.type() : null,
+                        groupBy.contains("status") ? key.status() : null,
+                        groupBy.contains("location") ? key.location() : null);
+                groups.computeIfAbsent(group, g -> new Bucket()).merge(entry.getValue());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<MarketStatsDto> results = new ArrayList<>(groups.size());
+        groups.forEach((group, bucket) -> {
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (Double percentile : percentiles) {
+                values.put("p" + format(percentile), bucket.sketch.quantile(percentile / 100));
+            }
+            results.add(new MarketStatsDto(group.type(), group.status(), group.location(), bucket.count(),
+                    bucket.totalCents / 100.0 / bucket.count(), values));
+        });
+        results.sort(Comparator.comparingLong(MarketStatsDto::count).reversed());
+        return results;
+    }
+
+    private void removeLocked(Long id) {
+        Contribution previous = contributions.remove(id);
+        if (previous != null) {
+            Bucket bucket = buckets.get(previous.key());
+            bucket.remove(previous.price());
+            if (bucket.count() == 0) {
+                buckets.remove(previous.key());
+            }
+        }
+    }
+
+    // "50" rather than "50.0", but keeps fractions such as "99.9"
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private record BucketKey(String type, String status, String location) {
+    }
+
+    private record Contribution(BucketKey key, double price) {
+    }
+
+    private static final class Bucket {
+
+        private final PriceSketch sketch = new PriceSketch();
+        private long totalCents;   // Exact under repeated add/remove, unlike a running double sum
+
+        void add(double price) {
+            sketch.add(price);
+            totalCents += Math.round(price * 100);
+        }
+
+        void remove(double price) {
+            sketch.remove(price);
+            totalCents -= Math.round(price * 100);
+        }
+
+        void merge(Bucket other) {
+            sketch.merge(other.sketch);
+            totalCents += other.totalCents;
+        }
+
+        long count() {
+            return sketch.count();
+        }
+    }
+}
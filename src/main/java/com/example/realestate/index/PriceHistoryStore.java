@@ -0,0 +1,323 @@
+package com.example.realestate.index;
+
+import com.example.realestate.dto.PriceBucketDto;
+import com.example.realestate.dto.PricePointDto;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory price history of every property, as compact append-only time series.
+ * <p>
+ * Each property's series is one byte array of varint pairs: the milliseconds since the previous point and the
+ * zig-zag encoded change in price (in cents) since the previous point. A typical point takes 4-8 bytes instead of
+ * a row and an object per revision. Reads decode the series sequentially, which is cheap at the tens to hundreds of
+ * points a property accumulates, and downsample it into fixed-width buckets.
+ */
+@Component
+public class PriceHistoryStore {
+
+    // Upper bound on buckets per series in one query, so a tiny interval can't produce a huge response
+    public static final int MAX_BUCKETS = 1000;
+
+    private final ConcurrentHashMap<Long, Series> series = new ConcurrentHashMap<>();
+
+    /**
+     * Appends a price point to a property's series. Points older than the series' last point are moved up to it,
+     * and a price equal to the last one is ignored.
+     * @param propertyId The ID of the property.
+     * @param time When the price took effect.
+     * @param price The new price.
+     * @return true if the point was appended.
+     */
+    public boolean append(long propertyId, Instant time, double price) {
+        return series.computeIfAbsent(propertyId, id -> new Series()).append(time.toEpochMilli(), toCents(price));
+    }
+
+    /**
+     * Drops a property's series, e.g. when the property is deleted.
+     * @param propertyId The ID of the property.
+     */
+    public void remove(long propertyId) {
+        series.remove(propertyId);
+    }
+
+    public void clear() {
+        series.clear();
+    }
+
+    /**
+     * @param propertyId The ID of the property.
+     * @return The most recent price recorded for the property, or null if it has no history.
+     */
+    public Double lastPrice(long propertyId) {
+        Series history = series.get(propertyId);
+        return history == null ? null : history.lastPrice();
+    }
+
+    /**
+     * @param propertyId The ID of the property.
+     * @return When the property's most recent price took effect, or null if it has no history.
+     */
+    public Instant lastTime(long propertyId) {
+        Series history = series.get(propertyId);
+        return history == null ? null : history.lastTime();
+    }
+
+    /**
+     * Lists the price changes of a property in a time range, oldest first.
+     * @param propertyId The ID of the property.
+     * @param from The start of the range, inclusive.
+     * @param to The end of the range, exclusive.
+     * @return The points in the range.
+     */
+    public List<PricePointDto> points(long propertyId, Instant from, Instant to) {
+        Series history = series.get(propertyId);
+        if (history == null) {
+            return List.of();
+        }
+        long start = from.toEpochMilli();
+        long end = to.toEpochMilli();
+        List<PricePointDto> points = new ArrayList<>();
+        history.forEach((time, cents) -> {
+            if (time >= start && time < end) {
+                points.add(new PricePointDto(Instant.ofEpochMilli(time), cents / 100.0));
+            }
+            return time < end;
+        });
+        return points;
+    }
+
+    /**
+     * Counts the buckets a range divides into; the last one may be cut short.
+     * @param from The start of the first bucket.
+     * @param to The end of the range, exclusive.
+     * @param intervalMillis The bucket width in milliseconds.
+     * @return The number of buckets.
+     * @throws IllegalArgumentException If the interval isn't positive or the range is empty.
+     */
+    public static long bucketCount(Instant from, Instant to, long intervalMillis) {
+        long start = from.toEpochMilli();
+        long end = to.toEpochMilli();
+        if (intervalMillis <= 0 || end <= start) {
+            throw new IllegalArgumentException("The interval must be positive and the range must not be empty");
+        }
+        return (end - start - 1) / intervalMillis + 1;
+    }
+
+    /**
+     * Downsamples a property's price history into fixed-width buckets. The price is a step function, so each bucket
+     * opens at the price in effect at its start; buckets without changes repeat it. Buckets before the property's
+     * first recorded price are left out.
+     * @param propertyId The ID of the property.
+     * @param from The start of the first bucket.
+     * @param to The end of the range, exclusive; the last bucket may be cut short by it.
+     * @param intervalMillis The bucket width in milliseconds.
+     * @return The buckets, oldest first.
+     * @throws IllegalArgumentException If the range holds more than {@link #MAX_BUCKETS} buckets.
+     */
+    public List<PriceBucketDto> buckets(long propertyId, Instant from, Instant to, long intervalMillis) {
+        long start = from.toEpochMilli();
+        long end = to.toEpochMilli();
+        long buckets = bucketCount(from, to, intervalMillis);
+        if (buckets > MAX_BUCKETS) {
+            throw new IllegalArgumentException("The range holds more than " + MAX_BUCKETS + " intervals");
+        }
+        int bucketCount = (int) buckets;
+        Series history = series.get(propertyId);
+        if (history == null) {
+            return List.of();
+        }
+
+        BucketBuilder builder = new BucketBuilder(start, intervalMillis, bucketCount);
+        history.forEach((time, cents) -> {
+            if (time >= end) {
+                return false;
+            }
+            builder.add(time, cents);
+            return true;
+        });
+        return builder.finish();
+    }
+
+    /**
+     * @return The number of properties with a price history.
+     */
+    public int size() {
+        return series.size();
+    }
+
+    /**
+     * @return The total number of price points held.
+     */
+    public long pointCount() {
+        return series.values().stream().mapToLong(Series::count).sum();
+    }
+
+    /**
+     * @return The bytes of encoded point data held, excluding per-series overhead.
+     */
+    public long encodedBytes() {
+        return series.values().stream().mapToLong(Series::length).sum();
+    }
+
+    private static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    @FunctionalInterface
+    private interface PointVisitor {
+        // Returns false to stop the scan
+        boolean visit(long time, long cents);
+    }
+
+    // Accumulates open/high/low/close per bucket while the series is scanned in time order
+    private static final class BucketBuilder {
+
+        private final long start;
+        private final long interval;
+        private final int bucketCount;
+        private final List<PriceBucketDto> buckets = new ArrayList<>();
+
+        private boolean known;     // Whether any price is in effect yet
+        private int bucket = -1;   // The bucket currently being filled, or -1 before the range
+        private long open;
+        private long high;
+        private long low;
+        private long close;
+        private int changes;
+
+        BucketBuilder(long start, long interval, int bucketCount) {
+            this.start = start;
+            this.interval = interval;
+            this.bucketCount = bucketCount;
+        }
+
+        void add(long time, long cents) {
+            if (time >= start) {
+                advanceTo((int) ((time - start) / interval));
+            }
+            if (bucket < 0 || !known) {
+                // Before the range, or the first price inside it: the bucket opens here
+                open = high = low = cents;
+            } else {
+                high = Math.max(high, cents);
+                low = Math.min(low, cents);
+            }
+            close = cents;
+            known = true;
+            if (bucket >= 0) {
+                changes++;
+            }
+        }
+
+        List<PriceBucketDto> finish() {
+            advanceTo(bucketCount);
+            return buckets;
+        }
+
+        // Closes the current bucket and carries its closing price through any empty ones before the target
+        private void advanceTo(int target) {
+            while (bucket < target) {
+                if (bucket >= 0 && known) {
+                    buckets.add(new PriceBucketDto(Instant.ofEpochMilli(start + bucket * interval),
+                            open / 100.0, high / 100.0, low / 100.0, close / 100.0, changes));
+                }
+                bucket++;
+                open = high = low = close;
+                changes = 0;
+            }
+        }
+    }
+
+    // One property's points as varint-encoded (time delta, zig-zag price delta) pairs
+    private static final class Series {
+
+        private byte[] data = new byte[16];
+        private int length;
+        private int count;
+        private long lastTime;
+        private long lastCents;
+
+        synchronized boolean append(long time, long cents) {
+            if (count > 0 && cents == lastCents) {
+                return false;
+            }
+            time = Math.max(time, lastTime);   // Keeps deltas non-negative if clocks or commits interleave
+            if (data.length - length < 20) {   // Two varints take at most 10 bytes each
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            writeVarint(time - lastTime);
+            writeVarint((cents - lastCents) << 1 ^ (cents - lastCents) >> 63);
+            lastTime = time;
+            lastCents = cents;
+            count++;
+            return true;
+        }
+
+        synchronized double lastPrice() {
+            return lastCents / 100.0;
+        }
+
+        synchronized Instant lastTime() {
+            return Instant.ofEpochMilli(lastTime);
+        }
+
+        synchronized int count() {
+            return count;
+        }
+
+        synchronized int length() {
+            return length;
+        }
+
+        void forEach(PointVisitor visitor) {
+            byte[] bytes;
+            int end;
+            synchronized (this) {
+                // Bytes below length are never rewritten, so the snapshot can be decoded without the lock
+                bytes = data;
+                end = length;
+            }
+            long time = 0;
+            long cents = 0;
+            int position = 0;
+            while (position < end) {
+                long value = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    value |= (long) (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                time += value;
+
+                value = 0;
+                shift = 0;
+                do {
+                    b = bytes[position++];
+                    value |= (long) (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                cents += value >>> 1 ^ -(value & 1);
+
+                if (!visitor.visit(time, cents)) {
+                    return;
+                }
+            }
+        }
+
+        private void writeVarint(long value) {
+            while ((value & ~0x7fL) != 0) {
+                data[length++] = (byte) (value & 0x7f | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.realestate.index;
+
+/**
+ * Mergeable quantile sketch for prices with a fixed relative error, which unlike sampling sketches supports removal.
+ * <p>
+ * Positive values fall into logarithmic bins whose bounds grow by a factor of gamma = (1 + a) / (1 - a);
+ * a bin's midpoint is within a (1%) of every value in it, so any quantile is answered to within 1% of the exact
+ * value. Counts are kept in a dense array covering only the bins seen so far (about 1,000 bins span 1 to 10^9).
+ * Values of zero or below share one extra bin. Not thread-safe; callers synchronise.
+ */
+final class PriceSketch {
+
+    private static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    private long[] counts = new long[0];
+    private int offset;         // Bin index of counts[0]
+    private long zeroCount;     // Values <= 0
+    private long count;
+
+    void add(double value) {
+        adjust(value, 1);
+    }
+
+    void remove(double value) {
+        adjust(value, -1);
+    }
+
+    long count() {
+        return count;
+    }
+
+    void merge(PriceSketch other) {
+        if (other.counts.length > 0) {
+            ensureRange(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset - offset + i] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, e.g. 0.5 for the median.
+     * @return The approximate value at that quantile, or NaN if the sketch is empty.
+     */
+    double quantile(double quantile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (quantile * (count - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return 2 * Math.pow(GAMMA, offset + i) / (GAMMA + 1);
+            }
+        }
+        return 2 * Math.pow(GAMMA, offset + counts.length - 1) / (GAMMA + 1);
+    }
+
+    private void adjust(double value, int delta) {
+        count += delta;
+        if (value <= 0) {
+            zeroCount += delta;
+            return;
+        }
+        int bin = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+        ensureRange(bin, bin);
+        counts[bin - offset] += delta;
+    }
+
+    private void ensureRange(int minBin, int maxBin) {
+        if (counts.length == 0) {
+            counts = new long[maxBin - minBin + 1];
+            offset = minBin;
+            return;
+        }
+        int newMin = Math.min(minBin, offset);
+        int newMax = Math.max(maxBin, offset + counts.length - 1);
+        if (newMin == offset && newMax == offset + counts.length - 1) {
+            return;
+        }
+        long[] grown = new long[newMax - newMin + 1];
+        System.arraycopy(counts, 0, grown, offset - newMin, counts.length);
+        counts = grown;
+        offset = newMin;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+
+/**
+ * An in-process structure derived from the property table.
+ * Implementations are kept in sync by {@link PropertyIndexMaintainer}, which rebuilds them at startup
+ * and applies every change committed on any instance afterwards. Calls may arrive from any thread.
+ */
+public interface PropertyIndex {
+
+    /**
+     * Adds a property, replacing whatever was indexed for the same ID.
+     * @param property A detached snapshot of the property.
+     */
+    void upsert(Property property);
+
+    /**
+     * Removes a property; does nothing if it is not indexed.
+     * @param id The ID of the property.
+     */
+    void remove(Long id);
+
+    /**
+     * Drops everything, ahead of a full rebuild.
+     */
+    void clear();
+
+    /**
+     * Called once a full rebuild has added every property, e.g. to do work that is cheaper in bulk.
+     */
+    default void rebuilt() {
+    }
+}
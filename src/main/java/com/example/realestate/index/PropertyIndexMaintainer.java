@@ -0,0 +1,70 @@
+package com.example.realestate.index;
+
+import com.example.realestate.event.PropertyChangedEvent;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.PropertyChange;
+import com.example.realestate.service.PropertyChangeFeed;
+import com.example.realestate.service.PropertyService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component  // Keeps every PropertyIndex bean in step with the property table, following the change feed
+public class PropertyIndexMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyIndexMaintainer.class);
+
+    @Autowired
+    private List<PropertyIndex> indexes;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyChangeFeed propertyChangeFeed;
+
+    // Gets the changes committed on every instance, not just this one
+    private PropertyChangeFeed.Follower follower;
+
+    @PostConstruct
+    void follow() {
+        follower = propertyChangeFeed.follow(this::apply);
+    }
+
+    /**
+     * Rebuilds all indexes from a single pass over the property table, then replays the changes committed
+     * meanwhile, since the scan may have returned older row versions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildAll() {
+        long start = System.nanoTime();
+        long[] count = {0};
+        follower.reload(() -> {
+            indexes.forEach(PropertyIndex::clear);
+            propertyService.streamAllProperties(property -> {
+                indexes.forEach(index -> index.upsert(property));
+                count[0]++;
+            });
+        });
+        indexes.forEach(PropertyIndex::rebuilt);
+        log.info("Rebuilt {} property indexes from {} rows in {} ms",
+                indexes.size(), count[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void apply(List<PropertyChange> changes) {
+        for (PropertyChange change : changes) {
+            if (change.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+                indexes.forEach(index -> index.remove(change.getPropertyId()));
+            } else {
+                Property property = propertyChangeFeed.readProperty(change);
+                indexes.forEach(index -> index.upsert(property));
+            }
+        }
+    }
+}
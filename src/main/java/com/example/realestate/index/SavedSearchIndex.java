@@ -0,0 +1,357 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import com.example.realestate.model.SavedSearch;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse index of saved searches, for matching one property against all of them (a percolator).
+ * <p>
+ * Searches are partitioned by their (type, status) criteria, with an unset criterion as its own wildcard key, so a
+ * property only visits the four partitions its type and status can match. Within a partition they are grouped by
+ * location term, and each distinct term is tested against the property's location once (a case-insensitive substring,
+ * as in the filter search). Within a group, searches are placed by price range: searches without one match any price;
+ * those with a narrow range are registered in every price band it overlaps (bands are quarter octaves, so a band spans
+ * at most 25% of its lower bound); those bounded on one side only, or very wide, are kept sorted by their bound so the
+ * ones a price satisfies are a contiguous run. Only banded candidates can fail the final exact price check, so a match
+ * costs a few lookups per partition and location term plus roughly the matches found, however many searches exist.
+ */
+@Component
+public class SavedSearchIndex {
+
+    // Bands per doubling of the price, and how many bands a range may span before it is kept sorted instead
+    private static final int BANDS_PER_OCTAVE = 4;
+    static final int MAX_BAND_SPAN = 8 * BANDS_PER_OCTAVE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<PartitionKey, Partition> partitions = new HashMap<>();
+    private final Map<Long, Subscription> subscriptions = new HashMap<>();
+
+    /**
+     * Adds a saved search, replacing any previous version with the same ID.
+     * @param search The saved search; must have an ID and a user.
+     */
+    public void add(SavedSearch search) {
+        Subscription subscription = Subscription.of(search);
+        lock.writeLock().lock();
+        try {
+            removeLocked(subscription.id());
+            partitions.computeIfAbsent(subscription.key(), key -> new Partition()).add(subscription);
+            subscriptions.put(subscription.id(), subscription);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index, e.g. when loading it on startup.
+     * @param searches Every saved search.
+     */
+    public void addAll(Collection<SavedSearch> searches) {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+            for (SavedSearch search : searches) {
+                Subscription subscription = Subscription.of(search);
+                partitions.computeIfAbsent(subscription.key(), key -> new Partition()).add(subscription);
+                subscriptions.put(subscription.id(), subscription);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every saved search of the given users.
+     * @param userIds The IDs of the users.
+     */
+    public void removeUsers(Collection<Long> userIds) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ids = subscriptions.values().stream()
+                    .filter(subscription -> userIds.contains(subscription.userId()))
+                    .map(Subscription::id)
+                    .toList();
+            ids.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every saved search whose ID isn't given, e.g. those deleted through another instance.
+     * @param ids The IDs of the saved searches to keep.
+     */
+    public void retainAll(Set<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            List<Long> removed = subscriptions.keySet().stream().filter(id -> !ids.contains(id)).toList();
+            removed.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds every saved search the property satisfies.
+     * @param property The property, as created or updated.
+     * @return One match per saved search, in no particular order.
+     */
+    public List<Match> match(Property property) {
+        String type = emptyToNull(property.getType());
+        String status = emptyToNull(property.getStatus());
+        Double price = property.getPrice();
+        String location = property.getLocation() == null ? "" : property.getLocation().toLowerCase();
+
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            collect(new PartitionKey(type, status), price, location, matches);
+            if (type != null) {
+                collect(new PartitionKey(null, status), price, location, matches);
+            }
+            if (status != null) {
+                collect(new PartitionKey(type, null), price, location, matches);
+            }
+            if (type != null && status != null) {
+                collect(new PartitionKey(null, null), price, location, matches);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    public boolean contains(Long id) {
+        lock.readLock().lock();
+        try {
+            return subscriptions.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of saved searches held.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return subscriptions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(PartitionKey key, Double price, String location, List<Match> matches) {
+        Partition partition = partitions.get(key);
+        if (partition != null) {
+            partition.collect(price, location, matches);
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Subscription previous = subscriptions.remove(id);
+        if (previous != null) {
+            Partition partition = partitions.get(previous.key());
+            partition.remove(previous);
+            if (partition.isEmpty()) {
+                partitions.remove(previous.key());
+            }
+        }
+    }
+
+    private void clearLocked() {
+        partitions.clear();
+        subscriptions.clear();
+    }
+
+    // Quarter-octave band of a price: 0 below 1, then 4 bands per power of two, read off the double's exponent and mantissa
+    static int band(double price) {
+        if (price < 1) {
+            return 0;
+        }
+        long bits = Double.doubleToRawLongBits(price);
+        int exponent = (int) (bits >>> 52) - 1023;
+        int quarter = (int) (bits >>> 50) & (BANDS_PER_OCTAVE - 1);
+        return 1 + exponent * BANDS_PER_OCTAVE + quarter;
+    }
+
+    private static String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    /**
+     * A saved search the property satisfied.
+     * @param savedSearchId The ID of the saved search.
+     * @param userId The ID of its owner.
+     */
+    public record Match(long savedSearchId, long userId) {
+    }
+
+    // A null type or status means the search doesn't constrain it
+    private record PartitionKey(String type, String status) {
+    }
+
+    // The indexed form of a saved search, with the location lower-cased once
+    private record Subscription(long id, long userId, PartitionKey key, Double minPrice, Double maxPrice, String location) {
+
+        static Subscription of(SavedSearch search) {
+            return new Subscription(search.getId(), search.getUserId(),
+                    new PartitionKey(emptyToNull(search.getType()), emptyToNull(search.getStatus())),
+                    search.getMinPrice(), search.getMaxPrice(),
+                    StringUtils.hasText(search.getLocation()) ? search.getLocation().trim().toLowerCase() : null);
+        }
+
+        boolean matchesPrice(Double price) {
+            if (minPrice == null && maxPrice == null) {
+                return true;
+            }
+            return price != null && (minPrice == null || price >= minPrice) && (maxPrice == null || price <= maxPrice);
+        }
+    }
+
+    // The saved searches sharing one (type, status) key, grouped by location term, so each distinct term is checked
+    // against the property's location once rather than once per search
+    private static final class Partition {
+
+        private final Map<String, PriceRanges> byLocation = new HashMap<>();   // The null key holds searches without a location
+
+        void add(Subscription subscription) {
+            byLocation.computeIfAbsent(subscription.location(), k -> new PriceRanges()).add(subscription);
+        }
+
+        void remove(Subscription subscription) {
+            PriceRanges ranges = byLocation.get(subscription.location());
+            ranges.remove(subscription);
+            if (ranges.isEmpty()) {
+                byLocation.remove(subscription.location());
+            }
+        }
+
+        boolean isEmpty() {
+            return byLocation.isEmpty();
+        }
+
+        void collect(Double price, String location, List<Match> matches) {
+            for (Map.Entry<String, PriceRanges> entry : byLocation.entrySet()) {
+                if (entry.getKey() == null || location.contains(entry.getKey())) {
+                    entry.getValue().collect(price, matches);
+                }
+            }
+        }
+    }
+
+    // Searches with the same type, status and location, placed by the shape of their price range
+    private static final class PriceRanges {
+
+        private final List<Subscription> anyPrice = new ArrayList<>();
+        private final Map<Integer, List<Subscription>> bands = new HashMap<>();
+        private final NavigableMap<Double, List<Subscription>> byMinPrice = new TreeMap<>();   // Open-ended or wide ranges
+        private final NavigableMap<Double, List<Subscription>> byMaxPrice = new TreeMap<>();   // Ranges with only a maximum
+
+        void add(Subscription subscription) {
+            Double min = subscription.minPrice();
+            Double max = subscription.maxPrice();
+            if (min == null && max == null) {
+                anyPrice.add(subscription);
+            } else if (min == null) {
+                byMaxPrice.computeIfAbsent(max, k -> new ArrayList<>()).add(subscription);
+            } else if (max == null || band(max) - band(min) >= MAX_BAND_SPAN) {
+                byMinPrice.computeIfAbsent(min, k -> new ArrayList<>()).add(subscription);
+            } else {
+                for (int band = band(min); band <= band(max); band++) {
+                    bands.computeIfAbsent(band, k -> new ArrayList<>()).add(subscription);
+                }
+            }
+        }
+
+        void remove(Subscription subscription) {
+            Double min = subscription.minPrice();
+            Double max = subscription.maxPrice();
+            if (min == null && max == null) {
+                anyPrice.remove(subscription);
+            } else if (min == null) {
+                removeFrom(byMaxPrice, max, subscription);
+            } else if (max == null || band(max) - band(min) >= MAX_BAND_SPAN) {
+                removeFrom(byMinPrice, min, subscription);
+            } else {
+                for (int band = band(min); band <= band(max); band++) {
+                    List<Subscription> list = bands.get(band);
+                    list.remove(subscription);
+                    if (list.isEmpty()) {
+                        bands.remove(band);
+                    }
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return anyPrice.isEmpty() && bands.isEmpty() && byMinPrice.isEmpty() && byMaxPrice.isEmpty();
+        }
+
+        void collect(Double price, List<Match> matches) {
+            collect(anyPrice, price, matches);
+            if (price == null) {
+                return;   // Only searches without a price range can match an unpriced property
+            }
+            List<Subscription> band = bands.get(band(price));
+            if (band != null) {
+                collect(band, price, matches);
+            }
+            for (List<Subscription> list : byMinPrice.headMap(price, true).values()) {
+                collect(list, price, matches);
+            }
+            for (List<Subscription> list : byMaxPrice.tailMap(price, true).values()) {
+                collect(list, price, matches);
+            }
+        }
+
+        private static void collect(List<Subscription> candidates, Double price, List<Match> matches) {
+            for (Subscription candidate : candidates) {
+                if (candidate.matchesPrice(price)) {
+                    matches.add(new Match(candidate.id(), candidate.userId()));
+                }
+            }
+        }
+
+        private static void removeFrom(NavigableMap<Double, List<Subscription>> map, Double bound, Subscription subscription) {
+            List<Subscription> list = map.get(bound);
+            list.remove(subscription);
+            if (list.isEmpty()) {
+                map.remove(bound);
+            }
+        }
+    }
+}
@@ -0,0 +1,602 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Feature vectors of every property with an IVF (inverted file) index, for "similar properties" lookups.
+ * <p>
+ * Each property becomes a unit vector of {@link #DIMENSIONS} floats, built from feature blocks that are normalised
+ * and weighted separately: price (log scale, as angles at two resolutions, so close prices have a high dot product),
+ * type, status, location tokens and title/description terms (hashed into their block with a random sign). Cosine
+ * similarity is then a plain dot product. All vectors live in one flat float array indexed by slot; deleted slots
+ * are reused.
+ * <p>
+ * The IVF index clusters the vectors with spherical k-means into about sqrt(n) lists. A query scores the centroids,
+ * scans the members of the {@link #PROBES} closest lists exactly and keeps the top k, so it reads a few percent of the
+ * vectors instead of all of them. New and changed properties are assigned to their nearest existing list; the
+ * clusters are retrained in the background whenever the number of properties doubles. Until the first training
+ * (small catalogs) queries scan every vector.
+ */
+@Component
+public class SimilarityIndex implements PropertyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarityIndex.class);
+
+    static final int DIMENSIONS = 64;
+
+    // Feature blocks: [offset, offset + size) of the vector, and the weight of the block in the cosine
+    private static final int PRICE_OFFSET = 0, PRICE_SIZE = 4;
+    private static final int TYPE_OFFSET = 4, TYPE_SIZE = 8;
+    private static final int STATUS_OFFSET = 12, STATUS_SIZE = 4;
+    private static final int LOCATION_OFFSET = 16, LOCATION_SIZE = 16;
+    private static final int TEXT_OFFSET = 32, TEXT_SIZE = 32;
+    private static final float PRICE_WEIGHT = 1.0f;
+    private static final float TYPE_WEIGHT = 1.0f;
+    private static final float STATUS_WEIGHT = 0.5f;
+    private static final float LOCATION_WEIGHT = 0.8f;
+    private static final float TEXT_WEIGHT = 0.6f;
+
+    // Log-price range mapped onto a quarter circle, and the ratio that turns the fine angle by a quarter circle
+    private static final double MIN_LOG_PRICE = Math.log(1_000);
+    private static final double MAX_LOG_PRICE = Math.log(1_000_000_000);
+    private static final double FINE_PRICE_RATIO = Math.log(4);
+
+    // IVF parameters
+    static final int MIN_TRAINING_SIZE = 1024;
+    static final int PROBES = 8;
+    private static final int MAX_LISTS = 4096;
+    private static final int TRAINING_ITERATIONS = 8;
+    private static final int TRAINING_SAMPLE_PER_LIST = 32;
+
+    private static final long FREE = -1;   // slotIds value of a slot that holds no property
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Slot storage: slot s holds vectors[s * DIMENSIONS .. (s + 1) * DIMENSIONS)
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private float[] vectors = new float[1024 * DIMENSIONS];
+    private long[] slotIds = new long[1024];
+    private int[] slotStamps = new int[1024];    // Bumped on every write, so training can tell which slots changed
+    private int[] slotList = new int[1024];      // The IVF list a slot belongs to, or -1
+    private int[] slotPosition = new int[1024];  // The slot's index within its list
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;                       // Slots handed out, including free ones
+
+    // IVF lists; empty until trained
+    private float[] centroids = new float[0];
+    private int listCount;
+    private int[][] lists = new int[0][];
+    private int[] listSizes = new int[0];
+    private int trainedSize;
+    private int generation;   // Bumped by clear(), so a training that overlaps it is discarded
+
+    private volatile boolean autoTrain = true;   // Off during a full rebuild, which trains once at the end
+    private final AtomicBoolean trainingScheduled = new AtomicBoolean();
+    private final Object trainingLock = new Object();
+
+    @Override
+    public void upsert(Property property) {
+        float[] vector = vectorize(property);
+        boolean retrain;
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotById.get(property.getId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unassignLocked(slot);
+            } else {
+                slot = allocateSlotLocked();
+                slotById.put(property.getId(), slot);
+                slotIds[slot] = property.getId();
+            }
+            System.arraycopy(vector, 0, vectors, slot * DIMENSIONS, DIMENSIONS);
+            slotStamps[slot]++;
+            if (listCount > 0) {
+                assignLocked(slot, nearestList(centroids, listCount, vectors, slot * DIMENSIONS));
+            }
+            int size = slotById.size();
+            retrain = trainedSize == 0 ? size >= MIN_TRAINING_SIZE : size >= 2 * trainedSize;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (retrain && autoTrain) {
+            trainInBackground();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                unassignLocked(slot);
+                slotIds[slot] = FREE;
+                slotStamps[slot]++;
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            autoTrain = false;
+            generation++;
+            slotById.clear();
+            slotCount = 0;
+            freeCount = 0;
+            centroids = new float[0];
+            listCount = 0;
+            lists = new int[0][];
+            listSizes = new int[0];
+            trainedSize = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Queries scan every vector until the training finishes
+    @Override
+    public void rebuilt() {
+        autoTrain = true;
+        trainInBackground();
+    }
+
+    /**
+     * Finds the properties most similar to a given one.
+     * @param propertyId The ID of the property to compare with.
+     * @param k The maximum number of properties to return.
+     * @return The closest properties by cosine similarity, most similar first, excluding the property itself;
+     * null if the property isn't indexed.
+     */
+    public List<SimilarHit> similar(long propertyId, int k) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(propertyId);
+            if (slot == null) {
+                return null;
+            }
+            int query = slot * DIMENSIONS;
+            TopK top = new TopK(k);
+            if (listCount == 0) {
+                scanAllLocked(slot, top);
+            } else {
+                for (int list : closestLists(query, Math.min(PROBES, listCount))) {
+                    int[] members = lists[list];
+                    for (int i = 0; i < listSizes[list]; i++) {
+                        int candidate = members[i];
+                        if (candidate != slot) {
+                            top.offer(candidate, dot(vectors, query, vectors, candidate * DIMENSIONS));
+                        }
+                    }
+                }
+            }
+            return top.results(slotIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The exact answer to {@link #similar}, scanning every vector; for measuring the index's recall.
+     * @param propertyId The ID of the property to compare with.
+     * @param k The maximum number of properties to return.
+     * @return The closest properties, most similar first; null if the property isn't indexed.
+     */
+    public List<SimilarHit> similarExact(long propertyId, int k) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(propertyId);
+            if (slot == null) {
+                return null;
+            }
+            TopK top = new TopK(k);
+            scanAllLocked(slot, top);
+            return top.results(slotIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters the current vectors into IVF lists with spherical k-means. The clustering runs on a snapshot without
+     * holding the lock; only installing the lists does, reusing the snapshot's assignments for unchanged slots.
+     * Does nothing below {@link #MIN_TRAINING_SIZE} properties. One training runs at a time.
+     */
+    public void train() {
+        synchronized (trainingLock) {
+            trainLocked();
+        }
+    }
+
+    private void scanAllLocked(int slot, TopK top) {
+        for (int candidate = 0; candidate < slotCount; candidate++) {
+            if (candidate != slot && slotIds[candidate] != FREE) {
+                top.offer(candidate, dot(vectors, slot * DIMENSIONS, vectors, candidate * DIMENSIONS));
+            }
+        }
+    }
+
+    private void trainInBackground() {
+        if (trainingScheduled.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("similarity-training").start(() -> {
+                try {
+                    train();
+                } finally {
+                    trainingScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private void trainLocked() {
+        long start = System.nanoTime();
+        int[] slots;
+        int[] stamps;
+        float[] data;
+        int snapshotGeneration;
+        lock.readLock().lock();
+        try {
+            if (slotById.size() < MIN_TRAINING_SIZE) {
+                return;
+            }
+            snapshotGeneration = generation;
+            slots = slotById.values().stream().mapToInt(Integer::intValue).toArray();
+            stamps = new int[slots.length];
+            data = new float[slots.length * DIMENSIONS];
+            for (int i = 0; i < slots.length; i++) {
+                stamps[i] = slotStamps[slots[i]];
+                System.arraycopy(vectors, slots[i] * DIMENSIONS, data, i * DIMENSIONS, DIMENSIONS);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int n = slots.length;
+        int k = Math.min(MAX_LISTS, Math.max(1, (int) Math.sqrt(n)));
+        float[] trained = kMeans(data, n, k, new Random(n));
+        int[] assignments = new int[n];
+        for (int i = 0; i < n; i++) {
+            assignments[i] = nearestList(trained, k, data, i * DIMENSIONS);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (generation != snapshotGeneration || trainedSize > n) {
+                return;   // Cleared for a rebuild meanwhile (which trains again), or a larger snapshot was trained since
+            }
+            centroids = trained;
+            listCount = k;
+            lists = new int[k][];
+            listSizes = new int[k];
+            for (int list = 0; list < k; list++) {
+                lists[list] = new int[16];
+            }
+            Arrays.fill(slotList, 0, slotCount, -1);
+            for (int i = 0; i < n; i++) {
+                int slot = slots[i];
+                if (slotStamps[slot] == stamps[i]) {   // Unchanged since the snapshot, so the assignment still holds
+                    assignLocked(slot, assignments[i]);
+                }
+            }
+            // Slots written since the snapshot (new, changed or reused) are assigned now
+            for (int slot : slotById.values()) {
+                if (slotList[slot] < 0) {
+                    assignLocked(slot, nearestList(centroids, listCount, vectors, slot * DIMENSIONS));
+                }
+            }
+            trainedSize = slotById.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Trained {} similarity lists over {} properties in {} ms", k, n, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @return The number of properties indexed.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of IVF lists, or 0 if the index hasn't been trained yet.
+     */
+    public int listCount() {
+        lock.readLock().lock();
+        try {
+            return listCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds a property's feature vector.
+     * @param property The property.
+     * @return A unit vector of {@link #DIMENSIONS} floats.
+     */
+    static float[] vectorize(Property property) {
+        float[] vector = new float[DIMENSIONS];
+        if (property.getPrice() != null && property.getPrice() > 0) {
+            double logPrice = Math.log(property.getPrice());
+            double coarse = Math.clamp((logPrice - MIN_LOG_PRICE) / (MAX_LOG_PRICE - MIN_LOG_PRICE), 0, 1) * Math.PI / 2;
+            double fine = logPrice / FINE_PRICE_RATIO * Math.PI / 2;
+            vector[PRICE_OFFSET] = (float) Math.cos(coarse);
+            vector[PRICE_OFFSET + 1] = (float) Math.sin(coarse);
+            vector[PRICE_OFFSET + 2] = (float) Math.cos(fine);
+            vector[PRICE_OFFSET + 3] = (float) Math.sin(fine);
+            scaleBlock(vector, PRICE_OFFSET, PRICE_SIZE, PRICE_WEIGHT);
+        }
+        if (property.getType() != null) {
+            addHashed(vector, TYPE_OFFSET, TYPE_SIZE, property.getType(), 1);
+            scaleBlock(vector, TYPE_OFFSET, TYPE_SIZE, TYPE_WEIGHT);
+        }
+        if (property.getStatus() != null) {
+            addHashed(vector, STATUS_OFFSET, STATUS_SIZE, property.getStatus(), 1);
+            scaleBlock(vector, STATUS_OFFSET, STATUS_SIZE, STATUS_WEIGHT);
+        }
+        TextSearchIndex.tokenize(property.getLocation()).forEach((token, count) ->
+                addHashed(vector, LOCATION_OFFSET, LOCATION_SIZE, token, 1));
+        scaleBlock(vector, LOCATION_OFFSET, LOCATION_SIZE, LOCATION_WEIGHT);
+        Map<String, Integer> terms = TextSearchIndex.tokenize(property.getTitle());
+        TextSearchIndex.tokenize(property.getDescription()).forEach((term, count) -> terms.merge(term, count, Integer::sum));
+        terms.forEach((term, count) -> addHashed(vector, TEXT_OFFSET, TEXT_SIZE, term, 1 + (float) Math.log(count)));
+        scaleBlock(vector, TEXT_OFFSET, TEXT_SIZE, TEXT_WEIGHT);
+
+        float norm = (float) Math.sqrt(dot(vector, 0, vector, 0));
+        if (norm > 0) {
+            for (int i = 0; i < DIMENSIONS; i++) {
+                vector[i] /= norm;
+            }
+        }
+        return vector;
+    }
+
+    // Feature hashing: the token picks a dimension in the block and a sign, so collisions cancel out on average
+    private static void addHashed(float[] vector, int offset, int size, String token, float value) {
+        int hash = token.hashCode() * 0x9E3779B9;
+        vector[offset + ((hash >>> 1) % size)] += (hash & 1) == 0 ? value : -value;
+    }
+
+    private static void scaleBlock(float[] vector, int offset, int size, float weight) {
+        float norm = 0;
+        for (int i = offset; i < offset + size; i++) {
+            norm += vector[i] * vector[i];
+        }
+        if (norm > 0) {
+            float scale = weight / (float) Math.sqrt(norm);
+            for (int i = offset; i < offset + size; i++) {
+                vector[i] *= scale;
+            }
+        }
+    }
+
+    // Four accumulators break the dependency chain between additions, so the loop pipelines
+    private static float dot(float[] a, int aOffset, float[] b, int bOffset) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        for (int i = 0; i < DIMENSIONS; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private static int nearestList(float[] centroids, int listCount, float[] data, int offset) {
+        int best = 0;
+        float bestScore = Float.NEGATIVE_INFINITY;
+        for (int list = 0; list < listCount; list++) {
+            float score = dot(centroids, list * DIMENSIONS, data, offset);
+            if (score > bestScore) {
+                bestScore = score;
+                best = list;
+            }
+        }
+        return best;
+    }
+
+    // The probes lists whose centroids are most similar to the query vector
+    private int[] closestLists(int query, int probes) {
+        int[] best = new int[probes];
+        float[] bestScores = new float[probes];
+        Arrays.fill(bestScores, Float.NEGATIVE_INFINITY);
+        for (int list = 0; list < listCount; list++) {
+            float score = dot(centroids, list * DIMENSIONS, vectors, query);
+            if (score > bestScores[probes - 1]) {
+                int i = probes - 1;
+                while (i > 0 && bestScores[i - 1] < score) {
+                    bestScores[i] = bestScores[i - 1];
+                    best[i] = best[i - 1];
+                    i--;
+                }
+                bestScores[i] = score;
+                best[i] = list;
+            }
+        }
+        return best;
+    }
+
+    // Spherical k-means on a sample: centroids are the normalised means of their members
+    private static float[] kMeans(float[] data, int n, int k, Random random) {
+        int sampleSize = Math.min(n, k * TRAINING_SAMPLE_PER_LIST);
+        int[] sample = random.ints(0, n).distinct().limit(sampleSize).toArray();
+        float[] centroids = new float[k * DIMENSIONS];
+        for (int list = 0; list < k; list++) {
+            System.arraycopy(data, sample[list] * DIMENSIONS, centroids, list * DIMENSIONS, DIMENSIONS);
+        }
+        int[] counts = new int[k];
+        for (int iteration = 0; iteration < TRAINING_ITERATIONS; iteration++) {
+            float[] sums = new float[k * DIMENSIONS];
+            Arrays.fill(counts, 0);
+            for (int point : sample) {
+                int list = nearestList(centroids, k, data, point * DIMENSIONS);
+                counts[list]++;
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    sums[list * DIMENSIONS + d] += data[point * DIMENSIONS + d];
+                }
+            }
+            for (int list = 0; list < k; list++) {
+                int offset = list * DIMENSIONS;
+                if (counts[list] == 0) {
+                    // Empty cluster: restart it at a random sample point
+                    System.arraycopy(data, sample[random.nextInt(sampleSize)] * DIMENSIONS, centroids, offset, DIMENSIONS);
+                    continue;
+                }
+                float norm = (float) Math.sqrt(dot(sums, offset, sums, offset));
+                for (int d = 0; d < DIMENSIONS; d++) {
+                    centroids[offset + d] = norm > 0 ? sums[offset + d] / norm : 0;
+                }
+            }
+        }
+        return centroids;
+    }
+
+    private int allocateSlotLocked() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        int slot = slotCount++;
+        if (slot == slotIds.length) {
+            int capacity = slotIds.length * 2;
+            vectors = Arrays.copyOf(vectors, capacity * DIMENSIONS);
+            slotIds = Arrays.copyOf(slotIds, capacity);
+            slotStamps = Arrays.copyOf(slotStamps, capacity);
+            slotList = Arrays.copyOf(slotList, capacity);
+            slotPosition = Arrays.copyOf(slotPosition, capacity);
+        }
+        slotList[slot] = -1;
+        return slot;
+    }
+
+    private void assignLocked(int slot, int list) {
+        if (listSizes[list] == lists[list].length) {
+            lists[list] = Arrays.copyOf(lists[list], listSizes[list] * 2);
+        }
+        slotList[slot] = list;
+        slotPosition[slot] = listSizes[list];
+        lists[list][listSizes[list]++] = slot;
+    }
+
+    // Removes a slot from its list by moving the list's last member into its place
+    private void unassignLocked(int slot) {
+        int list = slotList[slot];
+        if (list < 0 || listCount == 0) {
+            return;
+        }
+        int position = slotPosition[slot];
+        int last = lists[list][--listSizes[list]];
+        lists[list][position] = last;
+        slotPosition[last] = position;
+        slotList[slot] = -1;
+    }
+
+    /**
+     * A similar property.
+     * @param propertyId The ID of the property.
+     * @param score The cosine similarity of the two feature vectors, at most 1.
+     */
+    public record SimilarHit(long propertyId, float score) {
+    }
+
+    // Bounded min-heap of (score, slot): the root is the weakest of the best k seen so far
+    private static final class TopK {
+
+        private final int[] slots;
+        private final float[] scores;
+        private int size;
+
+        TopK(int k) {
+            slots = new int[k];
+            scores = new float[k];
+        }
+
+        void offer(int slot, float score) {
+            if (size < slots.length) {
+                slots[size] = slot;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && score > scores[0]) {
+                slots[0] = slot;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        List<SimilarHit> results(long[] slotIds) {
+            List<SimilarHit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new SimilarHit(slotIds[slots[i]], scores[i]));
+            }
+            hits.sort((a, b) -> Float.compare(b.score(), a.score()));
+            return hits;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int slot = slots[i];
+            slots[i] = slots[j];
+            slots[j] = slot;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
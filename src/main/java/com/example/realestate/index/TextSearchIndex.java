@@ -0,0 +1,308 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over property title, description and location.
+ * <p>
+ * Each indexed property gets a dense int document number; every term maps to a postings list of
+ * ascending document numbers and term frequencies held in plain int arrays. Queries intersect the
+ * postings of all query terms (shortest list first) and rank the survivors with BM25.
+ * Updates tombstone the old document and append a new one; tombstones are compacted away once they
+ * make up a quarter of the index.
+ */
+@Component
+public class TextSearchIndex implements PropertyIndex {
+
+    // Per-field weights, applied as repeated term occurrences
+    private static final int TITLE_WEIGHT = 3;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    // BM25 parameters
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "for", "in", "is", "of", "on", "or", "the", "to", "with");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postingsByTerm = new HashMap<>();
+    private final Map<Long, Integer> docByPropertyId = new HashMap<>();
+    private final BitSet deletedDocs = new BitSet();
+    private long[] propertyIds = new long[1024];   // doc number -> property ID
+    private int[] docLengths = new int[1024];      // doc number -> weighted token count
+    private int docCount;                          // doc numbers handed out, including tombstones
+    private long totalLength;                      // sum of live doc lengths, for BM25 length normalisation
+
+    @Override
+    public void upsert(Property property) {
+        Map<String, Integer> termFrequencies = new LinkedHashMap<>();
+        addTokens(termFrequencies, property.getTitle(), TITLE_WEIGHT);
+        addTokens(termFrequencies, property.getLocation(), LOCATION_WEIGHT);
+        addTokens(termFrequencies, property.getDescription(), DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(property.getId());
+            compactIfNeededLocked();
+            int doc = docCount++;
+            ensureDocCapacity(docCount);
+
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postingsByTerm.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            propertyIds[doc] = property.getId();
+            docLengths[doc] = length;
+            totalLength += length;
+            docByPropertyId.put(property.getId(), doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            compactIfNeededLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postingsByTerm.clear();
+            docByPropertyId.clear();
+            deletedDocs.clear();
+            propertyIds = new long[1024];
+            docLengths = new int[1024];
+            docCount = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the properties containing every term of the query, best match first.
+     * @param query Free text; tokenized the same way as indexed fields.
+     * @param limit The maximum number of IDs to return.
+     * @return Property IDs ordered by descending BM25 score.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query).keySet());
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postingsByTerm.get(terms.get(i));
+                if (lists[i] == null) {
+                    return List.of();   // A term nobody uses means no document can contain all terms
+                }
+            }
+            Arrays.sort(lists, (left, right) -> Integer.compare(left.size, right.size));
+
+            int liveDocs = docByPropertyId.size();
+            float averageLength = liveDocs == 0 ? 1f : (float) totalLength / liveDocs;
+            float[] idf = new float[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                int df = Math.min(lists[i].size, liveDocs);
+                idf[i] = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+            }
+
+            // Walk the shortest list and gallop through the others; keep the best `limit` hits in a min-heap
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::score));
+            int[] cursors = new int[lists.length];
+            Postings shortest = lists[0];
+            candidates:
+            for (int p = 0; p < shortest.size; p++) {
+                int doc = shortest.docs[p];
+                if (deletedDocs.get(doc)) {
+                    continue;
+                }
+                float norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+                float tf = shortest.freqs[p];
+                float score = idf[0] * tf * (K1 + 1) / (tf + norm);
+                for (int i = 1; i < lists.length; i++) {
+                    cursors[i] = lists[i].advance(cursors[i], doc);
+                    if (cursors[i] >= lists[i].size || lists[i].docs[cursors[i]] != doc) {
+                        continue candidates;
+                    }
+                    tf = lists[i].freqs[cursors[i]];
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+                top.offer(new Hit(propertyIds[doc], score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            Long[] ranked = new Long[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = top.poll().propertyId();
+            }
+            return Arrays.asList(ranked);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of properties currently searchable.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByPropertyId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        Integer doc = docByPropertyId.remove(id);
+        if (doc != null) {
+            deletedDocs.set(doc);
+            totalLength -= docLengths[doc];
+        }
+    }
+
+    private void compactIfNeededLocked() {
+        if (deletedDocs.cardinality() > Math.max(1024, docCount / 4)) {
+            compactLocked();
+        }
+    }
+
+    // Renumbers live documents densely and drops tombstoned entries from every postings list
+    private void compactLocked() {
+        int[] newDoc = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deletedDocs.get(doc)) {
+                newDoc[doc] = -1;
+            } else {
+                newDoc[doc] = live;
+                propertyIds[live] = propertyIds[doc];
+                docLengths[live] = docLengths[doc];
+                live++;
+            }
+        }
+        postingsByTerm.values().removeIf(postings -> postings.remap(newDoc) == 0);
+        docByPropertyId.replaceAll((id, doc) -> newDoc[doc]);
+        deletedDocs.clear();
+        docCount = live;
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity > propertyIds.length) {
+            int newLength = Math.max(capacity, propertyIds.length * 2);
+            propertyIds = Arrays.copyOf(propertyIds, newLength);
+            docLengths = Arrays.copyOf(docLengths, newLength);
+        }
+    }
+
+    private static void addTokens(Map<String, Integer> termFrequencies, String text, int weight) {
+        tokenize(text).forEach((term, count) -> termFrequencies.merge(term, count * weight, Integer::sum));
+    }
+
+    // Lower-cases and splits on anything that isn't a letter or digit; drops one-letter tokens and stop words
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        if (text == null) {
+            return counts;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase();
+                if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                    counts.merge(token, 1, Integer::sum);
+                }
+                start = -1;
+            }
+        }
+        return counts;
+    }
+
+    private record Hit(long propertyId, float score) {
+    }
+
+    // Ascending doc numbers with their term frequencies, in parallel growable arrays
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        // Returns the first position at or after `from` whose doc is >= target (exponential then binary search)
+        int advance(int from, int target) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size - 1);
+            if (low > high) {
+                return size;
+            }
+            int found = Arrays.binarySearch(docs, low, high + 1, target);
+            return found >= 0 ? found : -found - 1;
+        }
+
+        int remap(int[] newDoc) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = newDoc[docs[i]];
+                if (mapped >= 0) {
+                    docs[kept] = mapped;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.realestate.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issued, as the hibernate.statements.per.request summary
+ * tagged by method and URI pattern. Requests above the warn threshold are logged with their counts,
+ * since a statement count that grows with the result size usually means an N+1 query pattern.
+ */
+@Component
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${realestate.metrics.statements-per-request-warn-threshold:20}")
+    private int warnThreshold;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = StatementCounter.close();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";   // Raw paths would explode the tag cardinality
+
+            DistributionSummary.builder("hibernate.statements.per.request")
+                    .description("SQL statements prepared while handling one request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+
+            if (statements > warnThreshold) {
+                log.atWarn()
+                        .setMessage("Request issued {} SQL statements (threshold {}): possible N+1 query")
+                        .addArgument(statements)
+                        .addArgument(warnThreshold)
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("uri", uri)
+                        .addKeyValue("statements", statements)
+                        .log();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.realestate.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity  // One price change of a property; written in batches by PriceHistoryService, never loaded through JPA
+@Table(name = "property_price_history")
+@IdClass(PricePoint.Key.class)
+public class PricePoint {
+
+    // The primary key is (property_id, changed_at) in that column order (see V3__price_history_key_order.sql),
+    // so a property's history is one index range in time order
+    @Id
+    private Long propertyId;
+
+    @Id
+    private Instant changedAt;
+
+    @Column(nullable = false)
+    private Double price;
+
+    // Default constructor
+    public PricePoint() {
+    }
+
+    // Parameterized constructor
+    public PricePoint(Long propertyId, Instant changedAt, Double price) {
+        this.propertyId = propertyId;
+        this.changedAt = changedAt;
+        this.price = price;
+    }
+
+    // Getters and Setters
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    // Composite primary key
+    public static class Key implements Serializable {
+
+        private Long propertyId;
+        private Instant changedAt;
+
+        public Key() {
+        }
+
+        public Key(Long propertyId, Instant changedAt) {
+            this.propertyId = propertyId;
+            this.changedAt = changedAt;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && Objects.equals(propertyId, key.propertyId) && Objects.equals(changedAt, key.changedAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(propertyId, changedAt);
+        }
+    }
+}
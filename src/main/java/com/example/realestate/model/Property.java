@@ -1,14 +1,26 @@
 package com.example.realestate.model;
 
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.validator.constraints.URL;
 
 @Entity  // Marks this class as a JPA entity to be mapped to a database table
-@Table(name = "property")   // Specifies the table name in the database
+@Table(name = "property",   // Specifies the table name in the database
+        indexes = {   // Composite indexes so each type/status/price filter combination hits an index range scan
+        @Index(name = "idx_property_type_status_price", columnList = "type, status, price"),
+        @Index(name = "idx_property_status_price", columnList = "status, price"),
+        @Index(name = "idx_property_price", columnList = "price")
+})
+// Fixed wire order for JSON and the binary formats (CBOR, Smile); new fields are only ever appended
+@JsonPropertyOrder({"id", "title", "description", "location", "price", "image", "type", "status",
+        "latitude", "longitude", "version"})
 public class Property {
 
     @Id   // Marks this field as the primary key
@@ -41,6 +53,20 @@ public class Property {
     @Size(min = 2, max=16, message = "Status must be at least 3 characters")
     private String status;
 
+    // WGS84 coordinates; optional, but a property needs both to show up in nearby searches
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
+
+    @Version   // Optimistic locking: bumped on every update, so concurrent edits fail instead of overwriting each other
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Default constructor
     public Property() {
     }
@@ -57,6 +83,14 @@ public class Property {
         this.status = status;
     }
 
+    // Copy constructor, used to hand out detached snapshots of a managed entity
+    public Property(Property other) {
+        this(other.id, other.title, other.description, other.location, other.price, other.image, other.type, other.status);
+        this.latitude = other.latitude;
+        this.longitude = other.longitude;
+        this.version = other.version;
+    }
+
     // Getters and Setters
 
     public Long getId() {
@@ -123,6 +157,30 @@ public class Property {
         this.status = status;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     //  Override equals and hashCode for proper comparison
     @Override
     public String toString() {
@@ -135,6 +193,9 @@ public class Property {
                 ", image='" + image + '\'' +
                 ", type='" + type + '\'' +
                 ", status='" + status + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", version=" + version +
                 '}';
     }
 }
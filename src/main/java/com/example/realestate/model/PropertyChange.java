@@ -0,0 +1,97 @@
+package com.example.realestate.model;
+
+import com.example.realestate.event.PropertyChangedEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+@Entity  // One row of the property change feed (the outbox), written in the same transaction as the change itself
+@Table(name = "property_changes")
+public class PropertyChange {
+
+    @Id   // Assigned from property_change_sequence at commit, so sequences commit in order and never leave gaps
+    private Long sequence;
+
+    @Column(nullable = false)
+    private Long propertyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private PropertyChangedEvent.ChangeType changeType;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    // The property after the change as JSON, exactly as GET /api/properties/{id} would return it; null on delete
+    @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+    private String property;
+
+    // Default constructor
+    public PropertyChange() {
+    }
+
+    // Parameterized constructor
+    public PropertyChange(Long sequence, Long propertyId, PropertyChangedEvent.ChangeType changeType,
+                          Instant changedAt, String property) {
+        this.sequence = sequence;
+        this.propertyId = propertyId;
+        this.changeType = changeType;
+        this.changedAt = changedAt;
+        this.property = property;
+    }
+
+    // Getters and Setters
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public PropertyChangedEvent.ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public void setChangeType(PropertyChangedEvent.ChangeType changeType) {
+        this.changeType = changeType;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @JsonRawValue   // Already JSON; embedded as an object rather than a string
+    public String getProperty() {
+        return property;
+    }
+
+    public void setProperty(String property) {
+        this.property = property;
+    }
+
+    @Override
+    public String toString() {
+        return "PropertyChange{" +
+                "sequence=" + sequence +
+                ", propertyId=" + propertyId +
+                ", changeType=" + changeType +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.realestate.model;
+
+import jakarta.persistence.*;
+
+@Entity  // The single counter row that hands out property change sequences (see PropertyChangeRepository)
+@Table(name = "property_change_sequence")
+public class PropertyChangeSequence {
+
+    public static final int ROW_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long lastSequence;
+
+    // Default constructor
+    public PropertyChangeSequence() {
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(Long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.realestate.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+@Entity  // A user's saved property search; new and changed listings are matched against it (see SavedSearchIndex)
+@Table(name = "saved_searches", indexes = {
+        @Index(name = "idx_saved_searches_user", columnList = "user_id"),        // Listed and deleted per user
+        @Index(name = "idx_saved_searches_created", columnList = "created_at")   // Picked up by other instances
+})
+public class SavedSearch {
+
+    @Id   // Marks this field as the primary key
+    @GeneratedValue(strategy = GenerationType.IDENTITY)   // Auto-generates the ID using the database identity column
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long id;
+
+    // The owner, taken from the authenticated request rather than the body
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @NotBlank(message = "Name is required")
+    @Size(max = 50, message = "Name can be up to 50 characters")
+    private String name;
+
+    // The criteria, with the same meaning as on /api/properties/filter; unset ones match anything
+    @Size(max = 16, message = "Type can be up to 16 characters")
+    private String type;
+
+    @Size(max = 16, message = "Status can be up to 16 characters")
+    private String status;
+
+    @PositiveOrZero(message = "Minimum price must not be negative")
+    private Double minPrice;
+
+    @PositiveOrZero(message = "Maximum price must not be negative")
+    private Double maxPrice;
+
+    @Size(max = 30, message = "Location can be up to 30 characters")
+    private String location;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // The change feed sequence when the search was saved; only changes after it notify
+    @JsonIgnore
+    @Column(nullable = false)
+    private Long feedSequence = 0L;
+
+    // Default constructor
+    public SavedSearch() {
+    }
+
+    // Parameterized constructor
+    public SavedSearch(Long id, Long userId, String name, String type, String status, Double minPrice, Double maxPrice, String location) {
+        this.id = id;
+        this.userId = userId;
+        this.name = name;
+        this.type = type;
+        this.status = status;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.location = location;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getFeedSequence() {
+        return feedSequence;
+    }
+
+    public void setFeedSequence(Long feedSequence) {
+        this.feedSequence = feedSequence;
+    }
+
+    @Override
+    public String toString() {
+        return "SavedSearch{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", name='" + name + '\'' +
+                '}';
+    }
+}
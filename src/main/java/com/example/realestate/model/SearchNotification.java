@@ -0,0 +1,83 @@
+package com.example.realestate.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+@Entity  // A property that matched a saved search; written in batches by SearchNotificationQueue, read over JDBC
+@Table(name = "search_notifications",
+        uniqueConstraints = @UniqueConstraint(name = "uk_search_notifications_search_property",
+                columnNames = {"saved_search_id", "property_id"}),   // Each listing is notified once per search
+        indexes = @Index(name = "idx_search_notifications_user", columnList = "user_id, id"))   // Read per user, in order
+public class SearchNotification {
+
+    @Id   // Increasing, so clients page through their notifications with ?after=<last id>
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "saved_search_id", nullable = false)
+    private Long savedSearchId;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Column(nullable = false)
+    private Instant matchedAt;
+
+    // Default constructor
+    public SearchNotification() {
+    }
+
+    // Parameterized constructor
+    public SearchNotification(Long id, Long userId, Long savedSearchId, Long propertyId, Instant matchedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.savedSearchId = savedSearchId;
+        this.propertyId = propertyId;
+        this.matchedAt = matchedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getSavedSearchId() {
+        return savedSearchId;
+    }
+
+    public void setSavedSearchId(Long savedSearchId) {
+        this.savedSearchId = savedSearchId;
+    }
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public Instant getMatchedAt() {
+        return matchedAt;
+    }
+
+    public void setMatchedAt(Instant matchedAt) {
+        this.matchedAt = matchedAt;
+    }
+}
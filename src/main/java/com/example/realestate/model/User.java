@@ -1,13 +1,19 @@
 package com.example.realestate.model;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity  // Marks this class as a JPA entity to be mapped to a database table
-@Table(name = "users")   // Specifies the table name in the database
+@Table(name = "users",   // Specifies the table name in the database
+        indexes = @Index(name = "idx_users_email", columnList = "email", unique = true))   // Logins look users up by email
 public class User {
 
+    // Validation group for the constraints on the submitted plain password, checked by the controllers alongside Default
+    public interface RawPassword {
+    }
+
     @Id  // Marks this field as the primary key
     @GeneratedValue(strategy = GenerationType.IDENTITY)   // Auto-generates the ID using the database identity column
     private Long id;
@@ -16,8 +22,11 @@ public class User {
     @NotBlank(message = "Email is required")
     private String email;
 
+    // Stored as a {bcrypt} hash (see UserService) and never serialized; the length limits only apply to the plain
+    // password submitted in a request body, so entity validation on persist doesn't reject the hash
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @NotBlank(message = "Password is required")
-    @Size(min = 3, max=16, message = "Password must be at least 6 characters")
+    @Size(min = 3, max=16, message = "Password must be at least 6 characters", groups = User.RawPassword.class)
     private String password;
 
     @NotBlank(message = "Name is required")
@@ -76,7 +85,6 @@ public class User {
         return "User{" +
                 "id=" + id +
                 ", email='" + email + '\'' +
-                ", password='" + password + '\'' +
                 ", name='" + name + '\'' +
                 '}';
     }
@@ -0,0 +1,85 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.model.PricePoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Plain-JDBC access to the property price history table.
+@Repository
+public class PriceHistoryRepository {
+
+    // Two commits can record the same property in the same millisecond (racing updates, or another instance); the
+    // later one's price wins instead of failing the write with a duplicate key
+    private static final String INSERT_SQL =
+            "insert into property_price_history (property_id, changed_at, price) values (?, ?, ?) " +
+            "on conflict (property_id, changed_at) do update set price = excluded.price";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given price points as one JDBC batch.
+     * @param points The points to insert.
+     */
+    public void insertAll(List<PricePoint> points) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, points, points.size(), (statement, point) -> {
+            statement.setLong(1, point.getPropertyId());
+            statement.setTimestamp(2, Timestamp.from(point.getChangedAt()));
+            statement.setDouble(3, point.getPrice());
+        });
+    }
+
+    /**
+     * Records the current price of every priced property that has no history yet, e.g. properties created
+     * before price history was kept.
+     * @param observedAt The time to record the prices at.
+     * @return The number of properties backfilled.
+     */
+    public int backfillCurrentPrices(Instant observedAt) {
+        return jdbcTemplate.update(
+                "insert into property_price_history (property_id, changed_at, price) " +
+                "select p.id, ?, p.price from property p where p.price is not null " +
+                "and not exists (select 1 from property_price_history h where h.property_id = p.id)",
+                Timestamp.from(observedAt));
+    }
+
+    /**
+     * Streams the history of every existing property in (property, time) order without holding it in memory.
+     * The history of deleted properties stays in the table but is skipped.
+     * Must run inside a transaction: PostgreSQL only honours the fetch size with autocommit off.
+     * @param consumer Receives each point.
+     */
+    public void streamAll(Consumer<PricePoint> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "select h.property_id, h.changed_at, h.price from property_price_history h " +
+                    "where exists (select 1 from property p where p.id = h.property_id) order by h.property_id, h.changed_at");
+            statement.setFetchSize(1000);
+            return statement;
+        }, rs -> {
+            consumer.accept(new PricePoint(rs.getLong(1), rs.getTimestamp(2).toInstant(), rs.getDouble(3)));
+        });
+    }
+
+    /**
+     * Lists the points of some properties recorded after a time, in (property, time) order.
+     * @param propertyIds The IDs of the properties.
+     * @param after The time to list points after, exclusive.
+     * @return The points.
+     */
+    public List<PricePoint> findAfter(Collection<Long> propertyIds, Instant after) {
+        return jdbcTemplate.query(
+                "select property_id, changed_at, price from property_price_history " +
+                "where property_id = any(?) and changed_at > ? order by property_id, changed_at",
+                (rs, rowNum) -> new PricePoint(rs.getLong(1), rs.getTimestamp(2).toInstant(), rs.getDouble(3)),
+                new SqlArrayValue("bigint", propertyIds.toArray()), Timestamp.from(after));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.model.Property;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Types;
+import java.util.List;
+
+// Plain-JDBC write path for bulk imports, bypassing the persistence context entirely.
+@Repository
+public class PropertyBulkRepository {
+
+    private static final String INSERT_SQL =
+            "insert into property (id, title, description, location, price, image, type, status, latitude, longitude) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves a block of IDs from the sequence behind property.id in a single round trip,
+     * so batched inserts never collide with rows created through JPA.
+     * @param count The number of IDs to reserve.
+     * @return The reserved IDs.
+     */
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(
+                "select nextval(pg_get_serial_sequence('property', 'id')) from generate_series(1, ?)",
+                Long.class, count);
+    }
+
+    /**
+     * Inserts the given properties as one JDBC batch. Every property must already carry its ID.
+     * @param properties The properties to insert.
+     */
+    public void insertAll(List<Property> properties) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, properties, properties.size(), (statement, property) -> {
+            statement.setLong(1, property.getId());
+            statement.setString(2, property.getTitle());
+            statement.setString(3, property.getDescription());
+            statement.setString(4, property.getLocation());
+            statement.setObject(5, property.getPrice(), Types.DOUBLE);
+            statement.setString(6, property.getImage());
+            statement.setString(7, property.getType());
+            statement.setString(8, property.getStatus());
+            statement.setObject(9, property.getLatitude(), Types.DOUBLE);
+            statement.setObject(10, property.getLongitude(), Types.DOUBLE);
+        });
+    }
+}
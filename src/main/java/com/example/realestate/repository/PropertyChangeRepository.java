@@ -0,0 +1,87 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.event.PropertyChangedEvent;
+import com.example.realestate.model.PropertyChange;
+import com.example.realestate.model.PropertyChangeSequence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Plain-JDBC access to the property change feed: the outbox table and its sequence counter row.
+@Repository
+public class PropertyChangeRepository {
+
+    private static final String INSERT_SQL =
+            "insert into property_changes (sequence, property_id, change_type, changed_at, property) values (?, ?, ?, ?, ?)";
+
+    private static final RowMapper<PropertyChange> ROW_MAPPER = (rs, rowNum) -> new PropertyChange(
+            rs.getLong("sequence"),
+            rs.getLong("property_id"),
+            PropertyChangedEvent.ChangeType.valueOf(rs.getString("change_type")),
+            rs.getTimestamp("changed_at").toInstant(),
+            rs.getString("property"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves a block of sequences. The update locks the counter row until the surrounding transaction ends,
+     * so concurrent writers take turns and sequences become visible to readers strictly in order.
+     * @param count The number of sequences to reserve.
+     * @return The first reserved sequence; the block is first .. first + count - 1.
+     */
+    public long reserveSequences(int count) {
+        jdbcTemplate.update("update property_change_sequence set last_sequence = last_sequence + ? where id = ?",
+                count, PropertyChangeSequence.ROW_ID);
+        Long last = jdbcTemplate.queryForObject("select last_sequence from property_change_sequence where id = ?",
+                Long.class, PropertyChangeSequence.ROW_ID);
+        return last - count + 1;
+    }
+
+    /**
+     * Reads the counter row. It moves in the same transaction as every property write, in any instance, and unlike
+     * the outbox it is never pruned.
+     * @return The last sequence reserved by a committed transaction.
+     */
+    public long findLastReservedSequence() {
+        return jdbcTemplate.queryForObject("select last_sequence from property_change_sequence where id = ?",
+                Long.class, PropertyChangeSequence.ROW_ID);
+    }
+
+    /**
+     * Inserts the given changes as one JDBC batch. Every change must already carry its sequence.
+     * @param changes The changes to insert.
+     */
+    public void insertAll(List<PropertyChange> changes) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getSequence());
+            statement.setLong(2, change.getPropertyId());
+            statement.setString(3, change.getChangeType().name());
+            statement.setTimestamp(4, Timestamp.from(change.getChangedAt()));
+            statement.setString(5, change.getProperty());
+        });
+    }
+
+    /**
+     * Retrieves the changes after a sequence, oldest first.
+     * @param since The last sequence the consumer has seen, or 0 for the whole feed.
+     * @param limit The maximum number of changes to return.
+     * @return Up to limit changes with a greater sequence.
+     */
+    public List<PropertyChange> findAfter(long since, int limit) {
+        return jdbcTemplate.query("select * from property_changes where sequence > ? order by sequence limit ?",
+                ROW_MAPPER, since, limit);
+    }
+
+    /**
+     * @return The sequence of the latest committed change, or 0 if there is none.
+     */
+    public long findLastSequence() {
+        Long last = jdbcTemplate.queryForObject("select max(sequence) from property_changes", Long.class);
+        return last == null ? 0 : last;
+    }
+}
@@ -1,15 +1,45 @@
 package com.example.realestate.repository;
 
+import com.example.realestate.dto.PropertySummary;
 import com.example.realestate.model.Property;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_READ_ONLY;
+
+public interface PropertyRepository extends JpaRepository<Property, Long>, JpaSpecificationExecutor<Property>,
+        PropertyRepositoryCustom {
 
     List<Property> findByTypeAndStatus(String type, String status);
 
     List<Property> findByType(String type);
 
     List<Property> findByStatus(String status);
+
+    // Keyset page: seeks past the last id the client saw instead of counting OFFSET rows
+    List<Property> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Keyset page of the summary view; selects only the summary columns
+    @Query("select new com.example.realestate.dto.PropertySummary(p.id, p.title, p.price, p.location, p.image, p.type, p.status) " +
+           "from Property p where p.id > :cursor order by p.id")
+    List<PropertySummary> findSummariesAfter(@Param("cursor") Long cursor, Limit limit);
+
+    // Version check for conditional GETs, without loading the entity
+    @Query("select p.version from Property p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Server-side cursor over the whole table; must be consumed inside a read-only transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select p from Property p order by p.id")
+    Stream<Property> streamAllByOrderByIdAsc();
 }
@@ -0,0 +1,40 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.dto.PropertyPatchDto;
+import com.example.realestate.dto.PropertySummary;
+import com.example.realestate.model.Property;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Optional;
+
+// Hand-written queries mixed into PropertyRepository (implemented by PropertyRepositoryImpl).
+public interface PropertyRepositoryCustom {
+
+    /**
+     * Writes only the non-null fields of the patch with a single UPDATE and bumps the version. The statement locks
+     * the row and returns it as it was before and after, so nothing is loaded first or read back.
+     * When the patch carries a version, the row is only updated if that version is still current.
+     * @param id The ID of the property.
+     * @param patch The fields to change.
+     * @return The property before and after the patch; empty if the property is missing or the version is stale.
+     */
+    Optional<Patched> patch(Long id, PropertyPatchDto patch);
+
+    /**
+     * Runs a specification query that selects only the summary columns.
+     * @param specification The filters to apply.
+     * @param pageable The requested page and sort order.
+     * @return One page of property summaries.
+     */
+    Page<PropertySummary> findSummaries(Specification<Property> specification, Pageable pageable);
+
+    /**
+     * A patched property, as detached snapshots.
+     * @param previous The property before the patch.
+     * @param current The property after the patch.
+     */
+    record Patched(Property previous, Property current) {
+    }
+}
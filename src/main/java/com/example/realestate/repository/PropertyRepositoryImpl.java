@@ -0,0 +1,103 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.dto.PropertyPatchDto;
+import com.example.realestate.dto.PropertySummary;
+import com.example.realestate.model.Property;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+// Picked up by Spring Data as the implementation of PropertyRepositoryCustom.
+class PropertyRepositoryImpl implements PropertyRepositoryCustom {
+
+    // The patched columns, in the order of the patch parameters and of both halves of the RETURNING clause
+    private static final String[] PATCH_COLUMNS =
+            {"title", "description", "location", "price", "image", "type", "status", "latitude", "longitude"};
+
+    // The CTE locks the row and keeps its old values, so RETURNING yields the row before and after in one statement.
+    // Each column is only changed when its parameter is non-null.
+    private static final String PATCH_SQL =
+            "with old as (select * from property where id = ?%s for update) " +
+            "update property p set " +
+            Arrays.stream(PATCH_COLUMNS).map(c -> c + " = coalesce(?, old." + c + ")").collect(Collectors.joining(", ")) +
+            ", version = old.version + 1 from old where p.id = old.id returning " +
+            Arrays.stream(PATCH_COLUMNS).map(c -> "old." + c).collect(Collectors.joining(", ")) + ", old.version, " +
+            Arrays.stream(PATCH_COLUMNS).map(c -> "p." + c).collect(Collectors.joining(", ")) + ", p.version";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<Patched> patch(Long id, PropertyPatchDto patch) {
+        List<Object> args = new ArrayList<>();
+        args.add(id);
+        if (patch.getVersion() != null) {
+            args.add(patch.getVersion());
+        }
+        args.addAll(Arrays.asList(patch.getTitle(), patch.getDescription(), patch.getLocation(), patch.getPrice(),
+                patch.getImage(), patch.getType(), patch.getStatus(), patch.getLatitude(), patch.getLongitude()));
+
+        String sql = patch.getVersion() != null ? PATCH_SQL.formatted(" and version = ?") : PATCH_SQL.formatted("");
+        List<Patched> patched = jdbcTemplate.query(sql, (rs, rowNum) ->
+                new Patched(readProperty(rs, id, 0), readProperty(rs, id, PATCH_COLUMNS.length + 1)), args.toArray());
+        return patched.stream().findFirst();
+    }
+
+    @Override
+    public Page<PropertySummary> findSummaries(Specification<Property> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<PropertySummary> query = cb.createQuery(PropertySummary.class);
+        Root<Property> root = query.from(Property.class);
+        query.select(cb.construct(PropertySummary.class,
+                root.get("id"), root.get("title"), root.get("price"), root.get("location"),
+                root.get("image"), root.get("type"), root.get("status")));
+        query.where(specification.toPredicate(root, query, cb));
+        query.orderBy(toOrders(pageable.getSort(), root, cb));
+
+        List<PropertySummary> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        // Only runs the count query when the page doesn't already reveal the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<Property> countRoot = countQuery.from(Property.class);
+            countQuery.select(cb.count(countRoot));
+            countQuery.where(specification.toPredicate(countRoot, countQuery, cb));
+            return entityManager.createQuery(countQuery).getSingleResult();
+        });
+    }
+
+    // Reads one half of the patch's RETURNING row (the patched columns, then the version), starting after offset columns
+    private static Property readProperty(ResultSet rs, Long id, int offset) throws SQLException {
+        Property property = new Property(id, rs.getString(offset + 1), rs.getString(offset + 2), rs.getString(offset + 3),
+                rs.getObject(offset + 4, Double.class), rs.getString(offset + 5), rs.getString(offset + 6), rs.getString(offset + 7));
+        property.setLatitude(rs.getObject(offset + 8, Double.class));
+        property.setLongitude(rs.getObject(offset + 9, Double.class));
+        property.setVersion(rs.getLong(offset + 10));
+        return property;
+    }
+}
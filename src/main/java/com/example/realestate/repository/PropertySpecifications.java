@@ -0,0 +1,64 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.dto.PropertySearchCriteria;
+import com.example.realestate.model.Property;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds the single dynamic WHERE clause behind /api/properties/filter.
+public final class PropertySpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private PropertySpecifications() {
+    }
+
+    /**
+     * Combines every filter that is set on the criteria into one conjunction.
+     * Equality on type/status and the price range come first so they line up with the composite indexes on Property.
+     * @param criteria The requested filters.
+     * @return A specification matching all of the given filters.
+     */
+    public static Specification<Property> matching(PropertySearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (StringUtils.hasText(criteria.getType())) {
+                predicates.add(cb.equal(root.get("type"), criteria.getType()));
+            }
+            if (StringUtils.hasText(criteria.getStatus())) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            if (StringUtils.hasText(criteria.getLocation())) {
+                predicates.add(cb.like(cb.lower(root.get("location")), containsPattern(criteria.getLocation()), LIKE_ESCAPE));
+            }
+            if (StringUtils.hasText(criteria.getQ())) {
+                String pattern = containsPattern(criteria.getQ());
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("title")), pattern, LIKE_ESCAPE),
+                        cb.like(cb.lower(root.get("description")), pattern, LIKE_ESCAPE)));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Lower-cases the term and escapes LIKE wildcards so user input is matched literally
+    private static String containsPattern(String term) {
+        String escaped = term.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.model.Property;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking reads of the property table over R2DBC, for the reactive read API. All writes stay on JPA.
+@Repository
+public class ReactivePropertyRepository {
+
+    private static final String COLUMNS =
+            "id, title, description, location, price, image, type, status, latitude, longitude, version";
+
+    // Rows fetched per round trip while streaming; the next batch is only requested once the client has consumed this one
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * @param id The ID of the property.
+     * @return The property, or empty if it doesn't exist.
+     */
+    public Mono<Property> findById(long id) {
+        return databaseClient.sql("select " + COLUMNS + " from property where id = :id")
+                .bind("id", id)
+                .map(ReactivePropertyRepository::toProperty)
+                .one();
+    }
+
+    /**
+     * Keyset page: seeks past the last ID the client saw instead of counting OFFSET rows.
+     * @param cursor The last ID seen, or 0 for the first page.
+     * @param limit The maximum number of properties to return.
+     * @return Up to limit properties with a greater ID, in ID order.
+     */
+    public Flux<Property> findAfter(long cursor, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from property where id > :cursor order by id limit :limit")
+                .bind("cursor", cursor)
+                .bind("limit", limit)
+                .map(ReactivePropertyRepository::toProperty)
+                .all();
+    }
+
+    /**
+     * Streams the whole table in ID order, fetching rows as the subscriber requests them.
+     * @return Every property.
+     */
+    public Flux<Property> streamAll() {
+        return databaseClient.sql("select " + COLUMNS + " from property order by id")
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(ReactivePropertyRepository::toProperty)
+                .all();
+    }
+
+    private static Property toProperty(Readable row) {
+        Property property = new Property(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("location", String.class),
+                row.get("price", Double.class),
+                row.get("image", String.class),
+                row.get("type", String.class),
+                row.get("status", String.class));
+        property.setLatitude(row.get("latitude", Double.class));
+        property.setLongitude(row.get("longitude", Double.class));
+        property.setVersion(row.get("version", Long.class));
+        return property;
+    }
+}
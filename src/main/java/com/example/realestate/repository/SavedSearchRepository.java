@@ -0,0 +1,29 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.model.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserIdOrderById(Long userId);
+
+    Optional<SavedSearch> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    List<SavedSearch> findByCreatedAtAfter(Instant since);
+
+    @Query("select s.id from SavedSearch s")
+    List<Long> findAllIds();
+
+    // One statement with a single array parameter however many users are deleted; used when their accounts are removed
+    @Modifying
+    @Query(value = "delete from saved_searches where user_id = any(:userIds)", nativeQuery = true)
+    int deleteByUserIds(Long[] userIds);
+}
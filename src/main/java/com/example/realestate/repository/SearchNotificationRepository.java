@@ -0,0 +1,91 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.model.SearchNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+// Plain-JDBC access to the saved-search notifications table.
+@Repository
+public class SearchNotificationRepository {
+
+    // One statement per batch, the rows arriving as parallel arrays. Skips searches deleted while the notification
+    // was queued, and listings already notified for the search.
+    private static final String INSERT_SQL =
+            "insert into search_notifications (user_id, saved_search_id, property_id, matched_at) " +
+            "select v.user_id, v.saved_search_id, v.property_id, v.matched_at " +
+            "from unnest(?, ?, ?, ?) as v(user_id, saved_search_id, property_id, matched_at) " +
+            "where exists (select 1 from saved_searches s where s.id = v.saved_search_id) " +
+            "on conflict (saved_search_id, property_id) do nothing";
+
+    private static final RowMapper<SearchNotification> ROW_MAPPER = (rs, rowNum) -> new SearchNotification(
+            rs.getLong("id"),
+            rs.getLong("user_id"),
+            rs.getLong("saved_search_id"),
+            rs.getLong("property_id"),
+            rs.getTimestamp("matched_at").toInstant());
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the given notifications in one INSERT ... SELECT FROM unnest(...) statement, ignoring duplicates.
+     * @param notifications The notifications to insert; their IDs are assigned by the database.
+     * @return The number of notifications inserted.
+     */
+    public int insertAll(List<SearchNotification> notifications) {
+        Long[] userIds = new Long[notifications.size()];
+        Long[] savedSearchIds = new Long[notifications.size()];
+        Long[] propertyIds = new Long[notifications.size()];
+        Timestamp[] matchedAt = new Timestamp[notifications.size()];
+        for (int i = 0; i < notifications.size(); i++) {
+            SearchNotification notification = notifications.get(i);
+            userIds[i] = notification.getUserId();
+            savedSearchIds[i] = notification.getSavedSearchId();
+            propertyIds[i] = notification.getPropertyId();
+            matchedAt[i] = Timestamp.from(notification.getMatchedAt());
+        }
+        return jdbcTemplate.update(INSERT_SQL,
+                new SqlArrayValue("bigint", (Object[]) userIds),
+                new SqlArrayValue("bigint", (Object[]) savedSearchIds),
+                new SqlArrayValue("bigint", (Object[]) propertyIds),
+                new SqlArrayValue("timestamp", (Object[]) matchedAt));
+    }
+
+    /**
+     * Retrieves a user's notifications after an ID, oldest first.
+     * @param userId The ID of the user.
+     * @param after The last notification ID the user has seen, or 0 for all of them.
+     * @param limit The maximum number of notifications to return.
+     * @return Up to limit notifications with a greater ID.
+     */
+    public List<SearchNotification> findAfter(long userId, long after, int limit) {
+        return jdbcTemplate.query(
+                "select id, user_id, saved_search_id, property_id, matched_at from search_notifications " +
+                "where user_id = ? and id > ? order by id limit ?",
+                ROW_MAPPER, userId, after, limit);
+    }
+
+    /**
+     * Deletes the notifications of a saved search.
+     * @param savedSearchId The ID of the saved search.
+     */
+    public void deleteBySavedSearch(long savedSearchId) {
+        jdbcTemplate.update("delete from search_notifications where saved_search_id = ?", savedSearchId);
+    }
+
+    /**
+     * Deletes the notifications of the given users.
+     * @param userIds The IDs of the users.
+     */
+    public void deleteByUsers(Collection<Long> userIds) {
+        jdbcTemplate.update("delete from search_notifications where user_id = any(?)",
+                new SqlArrayValue("bigint", userIds.toArray()));
+    }
+}
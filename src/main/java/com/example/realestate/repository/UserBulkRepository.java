@@ -0,0 +1,55 @@
+package com.example.realestate.repository;
+
+import com.example.realestate.dto.UserBatchUpdateDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// Set-based write path for bulk user administration: each call is a single statement, however many users it touches.
+@Repository
+public class UserBulkRepository {
+
+    // The new values arrive as parallel arrays and are joined to users by ID; null keeps the current value
+    private static final String UPDATE_SQL =
+            "update users u set email = coalesce(v.email, u.email), name = coalesce(v.name, u.name) " +
+            "from unnest(?, ?, ?) as v(id, email, name) where u.id = v.id returning u.id";
+
+    private static final String DELETE_SQL = "delete from users where id = any(?) returning id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies every entry in one UPDATE ... FROM unnest(...) statement. IDs must be distinct.
+     * @param entries The changes to apply.
+     * @return The IDs of the users that were updated.
+     */
+    public List<Long> updateAll(List<UserBatchUpdateDto.Entry> entries) {
+        Long[] ids = new Long[entries.size()];
+        String[] emails = new String[entries.size()];
+        String[] names = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            UserBatchUpdateDto.Entry entry = entries.get(i);
+            ids[i] = entry.id();
+            emails[i] = entry.email();
+            names[i] = entry.name();
+        }
+        return jdbcTemplate.queryForList(UPDATE_SQL, Long.class,
+                new SqlArrayValue("bigint", (Object[]) ids),
+                new SqlArrayValue("varchar", (Object[]) emails),
+                new SqlArrayValue("varchar", (Object[]) names));
+    }
+
+    /**
+     * Deletes the given users in one DELETE ... WHERE id = ANY(...) statement.
+     * @param ids The IDs of the users to delete.
+     * @return The IDs of the users that were deleted.
+     */
+    public List<Long> deleteAll(List<Long> ids) {
+        return jdbcTemplate.queryForList(DELETE_SQL, Long.class,
+                new SqlArrayValue("bigint", ids.toArray()));
+    }
+}
@@ -1,9 +1,18 @@
 package com.example.realestate.repository;
 
+import com.example.realestate.dto.UserSummary;
 import com.example.realestate.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByEmail(String email);
+
+    // Paged listing that selects only the summary columns, so password hashes never leave the database
+    @Query(value = "select new com.example.realestate.dto.UserSummary(u.id, u.email, u.name) from User u",
+           countQuery = "select count(u) from User u")
+    Page<UserSummary> findSummaries(Pageable pageable);
 }
@@ -1,35 +1,114 @@
 package com.example.realestate.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
+    private static final long MAX_VERIFIED_TOKENS = 10_000;
+
     private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
     private final long expiration = 1000 * 60 * 60; // 1 hour
 
+    // Immutable and thread-safe once built, so one parser serves every request
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Tokens whose signature has already been verified, kept until the token's own exp
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(MAX_VERIFIED_TOKENS)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                    Date expiresAt = claims.getExpiration();
+                    long remainingMillis = expiresAt == null ? expiration : expiresAt.getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+    // Signature work only; tokens served from verifiedTokens show up as cache hits instead
+    private final Timer signTimer;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
+
+    // Outside Spring (e.g. benchmarks) timings go to the global registry, which discards them unless one is added
+    public JwtUtil() {
+        this(Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public JwtUtil(MeterRegistry meterRegistry) {
+        this.signTimer = Timer.builder("jwt.sign").description("JWT signing time").register(meterRegistry);
+        this.validTokenTimer = Timer.builder("jwt.verify").description("JWT signature verification time")
+                .tag("outcome", "valid").register(meterRegistry);
+        this.invalidTokenTimer = Timer.builder("jwt.verify").description("JWT signature verification time")
+                .tag("outcome", "invalid").register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verifiedTokens");
+    }
+
     public String generateToken(String email) {
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(key)
-                .compact();
+                .compact());
     }
+
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
+    /**
+     * Verifies a token and returns its claims. Repeat calls with the same token skip signature
+     * verification until the token expires.
+     * @param token The compact JWS string.
+     * @return The verified claims.
+     * @throws JwtException If the token is malformed, expired or not signed by this application.
+     */
+    public Claims parseClaims(String token) {
+        Claims claims = verifiedTokens.getIfPresent(token);
+        if (claims == null) {
+            long start = System.nanoTime();
+            try {
+                claims = parser.parseClaimsJws(token).getBody();
+            } catch (JwtException | IllegalArgumentException ex) {
+                invalidTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+            validTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            verifiedTokens.put(token, claims);
+        }
+        return claims;
+    }
 
 }
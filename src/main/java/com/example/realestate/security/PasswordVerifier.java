@@ -0,0 +1,150 @@
+package com.example.realestate.security;
+
+import com.example.realestate.exception.PasswordHashingBusyException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Password hashing and verification with two protections for login storms.
+ * <p>
+ * At most max-concurrent-hashes bcrypt computations run at once; callers wait up to hash-wait-timeout for a slot
+ * and are then rejected with PasswordHashingBusyException (503), so slow hashing can't tie up every request thread.
+ * Successful verifications are remembered for a short TTL as an HMAC of the password under a per-process random key,
+ * bound to the stored hash, so repeat logins with the same credentials skip bcrypt until the entry expires or the
+ * password changes.
+ */
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    private final Semaphore hashingSlots;
+    private final long hashWaitNanos;
+    private final SecretKey credentialKey;
+
+    // (email, HMAC of password) -> the stored hash it was verified against
+    private final Cache<CredentialKey, String> verifiedCredentials;
+
+    public PasswordVerifier(
+            PasswordEncoder passwordEncoder,
+            @Value("${realestate.security.max-concurrent-hashes:0}") int maxConcurrentHashes,
+            @Value("${realestate.security.hash-wait-timeout:500ms}") Duration hashWaitTimeout,
+            @Value("${realestate.security.verified-credentials.maximum-size:100000}") long cacheMaximumSize,
+            @Value("${realestate.security.verified-credentials.expire-after-write:5m}") Duration cacheTtl,
+            MeterRegistry meterRegistry) throws GeneralSecurityException {
+
+        this.passwordEncoder = passwordEncoder;
+        // Hashing is CPU-bound, so by default allow one computation per core
+        this.hashingSlots = new Semaphore(maxConcurrentHashes > 0 ? maxConcurrentHashes : Runtime.getRuntime().availableProcessors());
+        this.hashWaitNanos = hashWaitTimeout.toNanos();
+        this.credentialKey = KeyGenerator.getInstance("HmacSHA256").generateKey();
+        this.verifiedCredentials = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedCredentials, "users.verifiedCredentials");
+    }
+
+    /**
+     * Hashes a new password.
+     * @param rawPassword The password as entered.
+     * @return The encoded password, prefixed with its scheme, e.g. {bcrypt}$2a$10$...
+     * @throws PasswordHashingBusyException If no hashing slot frees up in time.
+     */
+    public String hash(String rawPassword) {
+        return withHashingSlot(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks a password against the stored hash, skipping the hash computation for recently verified credentials.
+     * @param email The account the password belongs to.
+     * @param rawPassword The password as entered.
+     * @param storedPassword The encoded password stored for the account.
+     * @return true if the password matches.
+     * @throws PasswordHashingBusyException If the credentials aren't cached and no hashing slot frees up in time.
+     */
+    public boolean matches(String email, String rawPassword, String storedPassword) {
+        CredentialKey key = new CredentialKey(email, hmac(rawPassword));
+        if (storedPassword.equals(verifiedCredentials.getIfPresent(key))) {
+            return true;
+        }
+        boolean matches = withHashingSlot(() -> passwordEncoder.matches(rawPassword, storedPassword));
+        if (matches) {
+            verifiedCredentials.put(key, storedPassword);
+        }
+        return matches;
+    }
+
+    /**
+     * Re-hashes a just-verified password if its stored form uses an outdated scheme or cost
+     * (e.g. a legacy plain-text password), and remembers the new hash as verified.
+     * @param email The account the password belongs to.
+     * @param rawPassword The password as entered, already verified against storedPassword.
+     * @param storedPassword The encoded password stored for the account.
+     * @return The new encoded password to store, or null if the stored one is current.
+     */
+    public String upgradeIfNeeded(String email, String rawPassword, String storedPassword) {
+        if (!passwordEncoder.upgradeEncoding(storedPassword)) {
+            return null;
+        }
+        String upgraded = hash(rawPassword);
+        verifiedCredentials.put(new CredentialKey(email, hmac(rawPassword)), upgraded);
+        return upgraded;
+    }
+
+    private <T> T withHashingSlot(Supplier<T> hashing) {
+        try {
+            if (!hashingSlots.tryAcquire(hashWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new PasswordHashingBusyException("Too many concurrent logins; retry shortly");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Interrupted while waiting to verify the password");
+        }
+        try {
+            return hashing.get();
+        } finally {
+            hashingSlots.release();
+        }
+    }
+
+    private byte[] hmac(String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(credentialKey);
+            return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is unavailable", ex);
+        }
+    }
+
+    // Arrays need content-based equality to work as part of a cache key
+    private record CredentialKey(String email, byte[] passwordMac) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CredentialKey key && email.equals(key.email) && Arrays.equals(passwordMac, key.passwordMac);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * email.hashCode() + Arrays.hashCode(passwordMac);
+        }
+    }
+}
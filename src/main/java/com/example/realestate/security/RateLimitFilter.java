@@ -0,0 +1,177 @@
+package com.example.realestate.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Admission control in front of the controllers: 503 when the server is at its concurrent-request cap,
+// 429 when the caller (JWT subject, else client IP) has used up its token bucket for this class of endpoint.
+// Streaming responses hold a request slot only while their handler runs, and a stream slot until they complete.
+// Registered only inside the security filter chain, after JwtAuthenticationFilter (see SecurityConfig).
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final Counter overloaded;
+    private final Counter tooManyStreams;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.overloaded = rejections("overloaded", "all");
+        this.tooManyStreams = rejections("too_many_streams", "stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimiter.EndpointClass endpoint = classify(request);
+        long waitNanos = rateLimiter.tryAcquire(client(request), endpoint);
+        if (waitNanos > 0) {
+            rejections("rate_limited", endpoint.name().toLowerCase()).increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                    "Too many requests; slow down");
+            return;
+        }
+        if (!rateLimiter.tryEnter()) {
+            overloaded.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "The service is busy; retry shortly");
+            return;
+        }
+        boolean stream = isStream(request);
+        if (stream && !rateLimiter.tryEnterStream()) {
+            rateLimiter.exit();
+            tooManyStreams.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Too many open streams; retry shortly");
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            // The response of an async request is still being written; the async dispatch skips this filter, so
+            // its slot is released on completion. A stream gives its request slot back now and keeps its stream slot.
+            Runnable exit = stream ? rateLimiter::exitStream : rateLimiter::exit;
+            if (stream) {
+                rateLimiter.exit();
+            }
+            if (async) {
+                request.getAsyncContext().addListener(new ExitOnCompletion(exit));
+            } else {
+                exit.run();
+            }
+        }
+    }
+
+    // Responses that stay open as long as the client wants: the change feed and the NDJSON listing streams
+    static boolean isStream(HttpServletRequest request) {
+        return request.getRequestURI().equals("/api/properties/changes/stream")
+                || (request.getMethod().equals("GET") && "true".equals(request.getParameter("stream")));
+    }
+
+    // The failed request was already admitted, and the error page shouldn't be charged or turned away again
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return true;
+    }
+
+    // Releases a concurrency slot once an async request ends; onError and onTimeout are followed by onComplete,
+    // and the flag keeps the slot from being released twice
+    private static class ExitOnCompletion implements AsyncListener {
+
+        private final Runnable exit;
+        private final AtomicBoolean exited = new AtomicBoolean();
+
+        ExitOnCompletion(Runnable exit) {
+            this.exit = exit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            exit();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            exit();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            exit();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Restarted by a later dispatch: this listener must be registered again to hear the end
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void exit() {
+            if (exited.compareAndSet(false, true)) {
+                exit.run();
+            }
+        }
+    }
+
+    static RateLimiter.EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (path.equals("/api/users/login") || path.equals("/api/users/register")) {
+            return RateLimiter.EndpointClass.LOGIN;
+        }
+        if (path.equals("/api/properties/price-history")) {
+            return RateLimiter.EndpointClass.SEARCH;   // A query, even when its IDs are POSTed as a form
+        }
+        String method = request.getMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            return RateLimiter.EndpointClass.WRITE;
+        }
+        if (path.startsWith("/api/properties/filter") || path.startsWith("/api/properties/search")
+                || path.startsWith("/api/properties/nearby") || path.startsWith("/api/properties/stats")) {
+            return RateLimiter.EndpointClass.SEARCH;
+        }
+        return RateLimiter.EndpointClass.READ;
+    }
+
+    // Authenticated callers are limited per account wherever they connect from; everyone else per address
+    private static String client(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private Counter rejections(String reason, String endpoint) {
+        return Counter.builder("http.server.requests.rejected")
+                .description("Requests turned away by admission control before reaching a controller")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.realestate.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client, per-endpoint token buckets plus a global cap on concurrent requests, and a separate cap on open
+ * streaming responses, which would otherwise hold request slots for as long as their clients stay connected.
+ * <p>
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (GCRA, the generic cell rate algorithm):
+ * a request is admitted by advancing it one emission interval with a compare-and-set, and rejected when that would
+ * put it more than a burst ahead of now. That is equivalent to a token bucket refilled at the configured rate, with
+ * no locks and no refill thread. Buckets live in a bounded Caffeine map and expire once idle long enough to be full.
+ */
+@Component
+public class RateLimiter {
+
+    public enum EndpointClass {
+        READ,     // Property and user lookups and listings
+        SEARCH,   // Filter, full-text, nearby and statistics queries
+        WRITE,    // Creates, updates, deletes and imports
+        LOGIN     // Login and registration, which hash passwords
+    }
+
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final Cache<BucketKey, AtomicLong> buckets;
+    private final Semaphore concurrentRequests;
+    private final Semaphore concurrentStreams;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public RateLimiter(Environment environment) {
+        this(limitsFrom(environment),
+                environment.getProperty("realestate.ratelimit.max-concurrent-requests", Integer.class, 0),
+                environment.getProperty("realestate.ratelimit.max-concurrent-streams", Integer.class, 0),
+                environment.getProperty("realestate.ratelimit.maximum-clients", Long.class, 100_000L),
+                System::nanoTime);
+    }
+
+    RateLimiter(Map<EndpointClass, Limit> limits, int maxConcurrentRequests, int maxConcurrentStreams, long maximumClients,
+                LongSupplier nanoTime) {
+        this.limits.putAll(limits);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumClients)
+                .expireAfterAccess(Duration.ofNanos(limits.values().stream().mapToLong(Limit::burstNanos).max().orElse(1)))
+                .build();
+        this.concurrentRequests = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests) : null;
+        this.concurrentStreams = maxConcurrentStreams > 0 ? new Semaphore(maxConcurrentStreams) : null;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Takes one token from the client's bucket for this class of endpoint.
+     * @param client Identifies the caller, e.g. "user:alice@example.com" or "ip:203.0.113.7".
+     * @param endpoint The class of endpoint being called.
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a token will be available.
+     */
+    public long tryAcquire(String client, EndpointClass endpoint) {
+        Limit limit = limits.get(endpoint);
+        if (limit == null) {
+            return 0;   // Unlimited
+        }
+        AtomicLong arrival = buckets.get(new BucketKey(client, endpoint), key -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = arrival.get();
+            // Overflow-safe max(current, now): nanoTime values may be negative
+            long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + limit.intervalNanos();
+            long ahead = next - now;
+            if (ahead > limit.burstNanos()) {
+                return ahead - limit.burstNanos();
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Claims one of the global request slots without waiting.
+     * @return true if the request may proceed; it must then call {@link #exit()} when done.
+     */
+    public boolean tryEnter() {
+        return concurrentRequests == null || concurrentRequests.tryAcquire();
+    }
+
+    /**
+     * Releases the slot claimed by a successful {@link #tryEnter()}.
+     */
+    public void exit() {
+        if (concurrentRequests != null) {
+            concurrentRequests.release();
+        }
+    }
+
+    /**
+     * Claims one of the slots for open streaming responses without waiting.
+     * @return true if the stream may open; it must then call {@link #exitStream()} once the response completes.
+     */
+    public boolean tryEnterStream() {
+        return concurrentStreams == null || concurrentStreams.tryAcquire();
+    }
+
+    /**
+     * Releases the slot claimed by a successful {@link #tryEnterStream()}.
+     */
+    public void exitStream() {
+        if (concurrentStreams != null) {
+            concurrentStreams.release();
+        }
+    }
+
+    // realestate.ratelimit.<class>.per-second and .burst; a class without a positive rate is not limited
+    private static Map<EndpointClass, Limit> limitsFrom(Environment environment) {
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            String prefix = "realestate.ratelimit." + endpoint.name().toLowerCase() + ".";
+            double perSecond = environment.getProperty(prefix + "per-second", Double.class, 0.0);
+            int burst = environment.getProperty(prefix + "burst", Integer.class, 1);
+            if (perSecond > 0) {
+                limits.put(endpoint, Limit.of(perSecond, burst));
+            }
+        }
+        return limits;
+    }
+
+    /**
+     * A sustained rate with an allowance for bursts.
+     * @param intervalNanos The time one request "costs": one second divided by the rate.
+     * @param burstNanos How far ahead of now a bucket may run: burst requests' worth of intervals.
+     */
+    record Limit(long intervalNanos, long burstNanos) {
+
+        static Limit of(double perSecond, int burst) {
+            long interval = Math.max(1, Math.round(1_000_000_000 / perSecond));
+            return new Limit(interval, interval * Math.max(1, burst));
+        }
+    }
+
+    private record BucketKey(String client, EndpointClass endpoint) {
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.realestate.service;
+
+import com.example.realestate.dto.PriceBucketDto;
+import com.example.realestate.dto.PricePointDto;
+import com.example.realestate.event.PropertyChangedEvent;
+import com.example.realestate.index.PriceHistoryStore;
+import com.example.realestate.model.PricePoint;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.PropertyChange;
+import com.example.realestate.repository.PriceHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Price history of every property: each price change is appended to the property_price_history table in one batch
+ * per transaction, just before it commits, and to the in-memory {@link PriceHistoryStore} once it has committed.
+ * Price changes committed on other instances reach the store through the change feed. Queries are answered from
+ * memory. On startup the store is loaded from the table, after recording the current price of any property that has
+ * no history yet.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    @Autowired
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PropertyChangeFeed propertyChangeFeed;
+
+    private PropertyChangeFeed.Follower follower;
+
+    // Points committed while the store is being loaded; appended once it finishes
+    private List<PricePoint> pendingDuringLoad;
+
+    @PostConstruct
+    void follow() {
+        follower = propertyChangeFeed.follow(this::applyCommitted);
+    }
+
+    /**
+     * Loads the whole price history into memory.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.nanoTime();
+        int[] backfilled = {0};
+        follower.reload(() -> {
+            synchronized (this) {
+                pendingDuringLoad = new ArrayList<>();
+            }
+            priceHistoryStore.clear();
+
+            backfilled[0] = transactionTemplate.execute(status -> priceHistoryRepository.backfillCurrentPrices(now()));
+            transactionTemplate.executeWithoutResult(status -> priceHistoryRepository.streamAll(point ->
+                    priceHistoryStore.append(point.getPropertyId(), point.getChangedAt(), point.getPrice())));
+
+            synchronized (this) {
+                pendingDuringLoad.forEach(this::append);
+                pendingDuringLoad = null;
+            }
+        });
+        log.info("Loaded {} price points for {} properties ({} KB encoded, {} backfilled) in {} ms",
+                priceHistoryStore.pointCount(), priceHistoryStore.size(), priceHistoryStore.encodedBytes() / 1024,
+                backfilled[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Queues a price change to be written when the publishing transaction commits. Creations record the initial
+     * price; updates only record a point if the price actually changed.
+     * @param event The change published by PropertyService or the bulk import.
+     */
+    @EventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+            afterCommit(() -> priceHistoryStore.remove(event.getPropertyId()));
+            return;
+        }
+        Property current = event.getCurrent();
+        Double previousPrice = event.getPrevious() != null ? event.getPrevious().getPrice() : null;
+        if (current.getPrice() == null || Objects.equals(current.getPrice(), previousPrice)) {
+            return;
+        }
+        PricePoint point = new PricePoint(current.getId(), changeTime(current.getId()), current.getPrice());
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> priceHistoryRepository.insertAll(List.of(point)));
+            append(point);
+            return;
+        }
+        pendingPoints().points.add(point);
+    }
+
+    /**
+     * Lists a property's price changes in a time range, oldest first.
+     * @param propertyId The ID of the property.
+     * @param from The start of the range, inclusive.
+     * @param to The end of the range, exclusive.
+     * @return The price points in the range.
+     */
+    public List<PricePointDto> getPriceHistory(Long propertyId, Instant from, Instant to) {
+        return priceHistoryStore.points(propertyId, from, to);
+    }
+
+    /**
+     * Downsamples the price history of several properties into fixed-width buckets.
+     * @param propertyIds The IDs of the properties.
+     * @param from The start of the first bucket.
+     * @param to The end of the range, exclusive.
+     * @param intervalMillis The bucket width in milliseconds.
+     * @return Each property's buckets, in the order the IDs were given; properties without history map to an empty list.
+     * @throws IllegalArgumentException If the range holds more than PriceHistoryStore.MAX_BUCKETS buckets.
+     */
+    public Map<Long, List<PriceBucketDto>> getPriceBuckets(Collection<Long> propertyIds, Instant from, Instant to, long intervalMillis) {
+        Map<Long, List<PriceBucketDto>> series = new LinkedHashMap<>();
+        for (Long propertyId : propertyIds) {
+            series.put(propertyId, priceHistoryStore.buckets(propertyId, from, to, intervalMillis));
+        }
+        return series;
+    }
+
+    // Millisecond precision, and after the property's last point here; another commit in the same millisecond
+    // overwrites the row rather than adding one (see PriceHistoryRepository)
+    private Instant changeTime(Long propertyId) {
+        Instant time = now();
+        Instant last = priceHistoryStore.lastTime(propertyId);
+        return last != null && !time.isAfter(last) ? last.plusMillis(1) : time;
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private void append(PricePoint point) {
+        synchronized (this) {
+            if (pendingDuringLoad != null) {
+                pendingDuringLoad.add(point);
+                return;
+            }
+        }
+        priceHistoryStore.append(point.getPropertyId(), point.getChangedAt(), point.getPrice());
+    }
+
+    // Brings the store up to date with changes committed on any instance. Changes committed here have usually been
+    // appended already, and replays match the store's last price; for the rest the points are read back from the
+    // table, which the committing instance wrote in the same transaction, so they keep their recorded times
+    private void applyCommitted(List<PropertyChange> changes) {
+        Map<Long, Double> prices = new HashMap<>();
+        for (PropertyChange change : changes) {
+            if (change.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+                prices.remove(change.getPropertyId());
+                priceHistoryStore.remove(change.getPropertyId());
+            } else {
+                prices.put(change.getPropertyId(), propertyChangeFeed.readProperty(change).getPrice());
+            }
+        }
+        prices.entrySet().removeIf(entry ->
+                entry.getValue() == null || entry.getValue().equals(priceHistoryStore.lastPrice(entry.getKey())));
+        if (prices.isEmpty()) {
+            return;
+        }
+        Instant after = prices.keySet().stream().map(priceHistoryStore::lastTime)
+                .map(time -> time == null ? Instant.EPOCH : time).min(Instant::compareTo).orElseThrow();
+        for (PricePoint point : priceHistoryRepository.findAfter(prices.keySet(), after)) {
+            Instant last = priceHistoryStore.lastTime(point.getPropertyId());
+            if (last == null || point.getChangedAt().isAfter(last)) {
+                priceHistoryStore.append(point.getPropertyId(), point.getChangedAt(), point.getPrice());
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            pendingPoints().afterCommit.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    private PendingPoints pendingPoints() {
+        PendingPoints pending = (PendingPoints) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingPoints();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    // The price changes (and removals) of one transaction, written in one batch just before it commits
+    private class PendingPoints implements TransactionSynchronization {
+
+        private final List<PricePoint> points = new ArrayList<>();
+        private final List<Runnable> afterCommit = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!points.isEmpty()) {
+                priceHistoryRepository.insertAll(points);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            points.forEach(PriceHistoryService.this::append);
+            afterCommit.forEach(Runnable::run);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(PriceHistoryService.this);
+        }
+    }
+}
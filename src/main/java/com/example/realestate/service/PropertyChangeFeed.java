@@ -0,0 +1,364 @@
+package com.example.realestate.service;
+
+import com.example.realestate.event.PropertyChangedEvent;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.PropertyChange;
+import com.example.realestate.repository.PropertyChangeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * The property change feed: every create, update and delete is appended to an outbox table with a monotonic sequence,
+ * and consumers read the deltas after the last sequence they saw instead of re-reading the catalog.
+ * <p>
+ * Changes are written just before their transaction commits, in one batch per transaction. Sequences come from a
+ * counter row that stays locked until commit, so a reader that has seen sequence n has already seen every change
+ * below n. Changes committed on this instance are also kept in memory, so its stream subscribers get them without
+ * queries; changes from other instances are read from the table, which streams re-check every poll interval.
+ * <p>
+ * The in-memory state derived from the property table (indexes, price history, caches) follows the feed too, through
+ * {@link #follow}, so it converges on every instance whichever instance committed a change.
+ */
+@Service
+public class PropertyChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertyChangeFeed.class);
+
+    // Comment sent to idle streams so proxies don't drop them
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int FOLLOW_BATCH_SIZE = 500;
+
+    @Autowired
+    private PropertyChangeRepository propertyChangeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${realestate.changes.stream-timeout:30m}")
+    private Duration streamTimeout;
+
+    @Value("${realestate.changes.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${realestate.changes.buffer-size:10000}")
+    private int bufferSize;
+
+    // The latest changes committed on this instance, by sequence; published after commit, so briefly out of order
+    // under concurrency
+    private final ConcurrentSkipListMap<Long, PropertyChange> recent = new ConcurrentSkipListMap<>();
+    private volatile long lastPublished;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    // Also the lock that orders catch-ups, so each follower gets its batches in sequence order
+    private final List<Follower> followers = new CopyOnWriteArrayList<>();
+
+    // One virtual thread per stream subscriber; each blocks on its own connection
+    private final ExecutorService subscribers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    void closeStreams() {
+        subscribers.shutdownNow();
+    }
+
+    /**
+     * Queues a change to be written to the outbox when the publishing transaction commits.
+     * @param event The change published by PropertyService or the bulk import.
+     */
+    @EventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        PropertyChange change = toChange(event);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionTemplate.executeWithoutResult(status -> write(List.of(change)));
+            publish(List.of(change));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    /**
+     * Retrieves the changes after a sequence, oldest first. Answered from memory when this instance published the
+     * next change; otherwise from the table, which also holds the changes committed by other instances.
+     * @param since The last sequence the consumer has seen, or 0 for the whole feed.
+     * @param limit The maximum number of changes to return.
+     * @return Up to limit changes with a greater sequence, without gaps.
+     */
+    public List<PropertyChange> getChangesAfter(long since, int limit) {
+        List<PropertyChange> changes = new ArrayList<>();
+        PropertyChange change;
+        while (changes.size() < limit && (change = recent.get(since + 1 + changes.size())) != null) {
+            changes.add(change);
+        }
+        if (!changes.isEmpty()) {
+            return changes;   // Stops at a gap, which the next call reads from the table
+        }
+        if (propertyChangeRepository.findLastSequence() <= since) {
+            return changes;   // Nothing newer has been committed by any instance
+        }
+        return propertyChangeRepository.findAfter(since, limit);
+    }
+
+    /**
+     * @return The sequence of the latest committed change, or 0 if there is none.
+     */
+    public long getLastSequence() {
+        return Math.max(lastPublished, propertyChangeRepository.findLastSequence());
+    }
+
+    /**
+     * Follows the feed from inside this instance. The consumer gets every change in sequence order, in batches:
+     * changes committed here as soon as they are published, and other instances' within a poll interval.
+     * The follower starts paused, and begins following with its first {@link Follower#reload}.
+     * @param consumer Applies a batch of changes to the follower's state.
+     * @return The follower.
+     */
+    public Follower follow(Consumer<List<PropertyChange>> consumer) {
+        Follower follower = new Follower(consumer);
+        followers.add(follower);
+        return follower;
+    }
+
+    /**
+     * Passes the changes committed since the last catch-up to every follower that isn't paused.
+     */
+    @Scheduled(fixedDelayString = "${realestate.changes.poll-interval:1s}")
+    public void catchUpFollowers() {
+        synchronized (followers) {
+            long cursor = followers.stream().filter(follower -> !follower.paused)
+                    .mapToLong(follower -> follower.cursor).min().orElse(-1);
+            if (cursor < 0) {
+                return;
+            }
+            List<PropertyChange> changes;
+            while (!(changes = getChangesAfter(cursor, FOLLOW_BATCH_SIZE)).isEmpty()) {
+                for (Follower follower : followers) {
+                    follower.apply(changes);
+                }
+                cursor = changes.get(changes.size() - 1).getSequence();
+            }
+        }
+    }
+
+    /**
+     * Reads the property a change left behind.
+     * @param change A create or update.
+     * @return The property as of the change.
+     */
+    public Property readProperty(PropertyChange change) {
+        try {
+            return objectMapper.readValue(change.getProperty(), Property.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read change " + change.getSequence(), ex);
+        }
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the changes after a sequence. Each event's ID is its sequence,
+     * so a reconnecting EventSource resumes from Last-Event-ID without missing or repeating changes.
+     * @param since The last sequence the subscriber has seen.
+     * @return The emitter for the response.
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onError(ex -> open.set(false));
+        emitter.onTimeout(() -> {
+            open.set(false);
+            emitter.complete();
+        });
+        subscribers.execute(() -> stream(emitter, since, open));
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, long since, AtomicBoolean open) {
+        long cursor = since;
+        long lastSent = System.nanoTime();
+        try {
+            while (open.get()) {
+                List<PropertyChange> changes = getChangesAfter(cursor, STREAM_BATCH_SIZE);
+                if (changes.isEmpty()) {
+                    awaitPublished(cursor);
+                    if (System.nanoTime() - lastSent >= HEARTBEAT_INTERVAL.toNanos()) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                        lastSent = System.nanoTime();
+                    }
+                    continue;
+                }
+                for (PropertyChange change : changes) {
+                    emitter.send(SseEmitter.event().id(String.valueOf(change.getSequence())).data(change, MediaType.APPLICATION_JSON));
+                }
+                cursor = changes.get(changes.size() - 1).getSequence();
+                lastSent = System.nanoTime();
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away or the emitter has already completed
+        } catch (InterruptedException ex) {
+            emitter.complete();   // Shutting down
+        }
+    }
+
+    // Waits until this instance publishes a change after the cursor, or at most one poll interval, after which the
+    // caller re-checks the table for changes committed by other instances
+    private void awaitPublished(long cursor) throws InterruptedException {
+        long remaining = pollInterval.toNanos();
+        lock.lock();
+        try {
+            while (lastPublished <= cursor && remaining > 0) {
+                remaining = published.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private PropertyChange toChange(PropertyChangedEvent event) {
+        try {
+            String property = event.getCurrent() == null ? null : objectMapper.writeValueAsString(event.getCurrent());
+            return new PropertyChange(null, event.getPropertyId(), event.getChangeType(), null, property);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize property " + event.getPropertyId(), ex);
+        }
+    }
+
+    // Holds the counter row lock from here until the transaction ends
+    private void write(List<PropertyChange> changes) {
+        long sequence = propertyChangeRepository.reserveSequences(changes.size());
+        Instant now = Instant.now();
+        for (PropertyChange change : changes) {
+            change.setSequence(sequence++);
+            change.setChangedAt(now);
+        }
+        propertyChangeRepository.insertAll(changes);
+    }
+
+    private void publish(List<PropertyChange> changes) {
+        changes.forEach(change -> recent.put(change.getSequence(), change));
+        long last = changes.get(changes.size() - 1).getSequence();
+        recent.headMap(last - bufferSize, true).clear();
+        lock.lock();
+        try {
+            lastPublished = Math.max(lastPublished, last);
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        catchUpFollowers();
+    }
+
+    // The changes of one transaction, written as a batch just before it commits
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<PropertyChange> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            write(changes);
+        }
+
+        @Override
+        public void afterCommit() {
+            publish(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(PropertyChangeFeed.this);
+        }
+    }
+
+    /**
+     * A consumer of the feed inside this instance, with its own position in it.
+     */
+    public class Follower {
+
+        private final Consumer<List<PropertyChange>> consumer;
+
+        // Both guarded by followers
+        private long cursor;
+        private boolean paused = true;
+
+        private Follower(Consumer<List<PropertyChange>> consumer) {
+            this.consumer = consumer;
+        }
+
+        /**
+         * Reloads the follower's state without missing a change: it is paused while the load runs, then catches up
+         * from the last sequence committed before the load started. Changes the load already saw are passed again,
+         * so the consumer must tolerate replays.
+         * @param load Rebuilds the follower's state from the tables.
+         */
+        public void reload(Runnable load) {
+            synchronized (followers) {
+                paused = true;
+            }
+            long from = getLastSequence();
+            try {
+                load.run();
+            } finally {
+                synchronized (followers) {
+                    cursor = from;
+                    paused = false;
+                }
+                catchUpFollowers();
+            }
+        }
+
+        private void apply(List<PropertyChange> changes) {
+            if (paused || changes.get(changes.size() - 1).getSequence() <= cursor) {
+                return;
+            }
+            int first = 0;
+            while (changes.get(first).getSequence() <= cursor) {
+                first++;
+            }
+            try {
+                consumer.accept(changes.subList(first, changes.size()));
+            } catch (RuntimeException ex) {
+                // Skipped rather than retried forever; the next reload repairs the state
+                log.warn("Could not apply the changes from sequence {}", changes.get(first).getSequence(), ex);
+            }
+            cursor = changes.get(changes.size() - 1).getSequence();
+        }
+    }
+}
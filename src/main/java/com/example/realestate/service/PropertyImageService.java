@@ -0,0 +1,395 @@
+package com.example.realestate.service;
+
+import com.example.realestate.cache.BlobStore;
+import com.example.realestate.exception.ImageFetchException;
+import com.example.realestate.exception.ImageProcessingBusyException;
+import com.example.realestate.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thumbnails of property images, rendered once and served from a disk-backed {@link BlobStore}.
+ * <p>
+ * On a miss the original is fetched from the property's image URL a single time, decoded at no more than twice the
+ * largest thumbnail's resolution, and every thumbnail size is rendered and stored together; concurrent requests for
+ * the same image wait for that one render. At most max-concurrent-renders images are fetched and decoded at once, so a
+ * cold listing grid can't exhaust memory with full-size decodes. Images are only fetched over http(s), and by default
+ * not from loopback or private network addresses.
+ */
+@Service
+public class PropertyImageService {
+
+    /**
+     * The thumbnail sizes served, as the longest side in pixels. Smaller originals are never upscaled.
+     */
+    public enum ThumbnailSize {
+        SMALL(160), MEDIUM(480), LARGE(1024);
+
+        private final int pixels;
+
+        ThumbnailSize(int pixels) {
+            this.pixels = pixels;
+        }
+
+        /**
+         * @param value A size name in any case, e.g. "small".
+         * @return The size, or null if there is no such size.
+         */
+        public static ThumbnailSize parse(String value) {
+            for (ThumbnailSize size : values()) {
+                if (size.name().equalsIgnoreCase(value)) {
+                    return size;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Large originals are decoded subsampled down to about this longest side, leaving detail for the downscale
+    private static final int DECODE_TARGET_PIXELS = 2 * ThumbnailSize.LARGE.pixels;
+    // Refuses images whose dimensions claim more pixels than this (decompression bombs)
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+    private static final int MAX_REDIRECTS = 3;
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 303, 307, 308);
+    private static final float JPEG_QUALITY = 0.85f;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    private final BlobStore store;
+    private final CloseableHttpClient httpClient;
+    private final long maxSourceBytes;
+    private final Semaphore renderSlots;
+    private final long renderWaitNanos;
+
+    // Source key -> the render in progress for that image
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> rendering = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public PropertyImageService(
+            @Value("${realestate.images.cache-dir:${java.io.tmpdir}/realestate-images}") Path cacheDirectory,
+            @Value("${realestate.images.segment-size:64MB}") DataSize segmentSize,
+            @Value("${realestate.images.segments:16}") int segments,
+            @Value("${realestate.images.fetch-timeout:5s}") Duration fetchTimeout,
+            @Value("${realestate.images.max-source-size:20MB}") DataSize maxSourceSize,
+            @Value("${realestate.images.allow-private-addresses:false}") boolean allowPrivateAddresses,
+            @Value("${realestate.images.max-concurrent-renders:0}") int maxConcurrentRenders,
+            @Value("${realestate.images.render-wait-timeout:2s}") Duration renderWaitTimeout,
+            MeterRegistry meterRegistry) throws IOException {
+
+        this.store = new BlobStore(cacheDirectory, Math.toIntExact(segmentSize.toBytes()), segments);
+        Timeout timeout = Timeout.of(fetchTimeout);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setDnsResolver(allowPrivateAddresses ? SystemDefaultDnsResolver.INSTANCE : new PublicAddressResolver())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom().setConnectTimeout(timeout).setSocketTimeout(timeout).build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom().setResponseTimeout(timeout).build())
+                .disableRedirectHandling()   // Followed by hand, so every hop's URL is checked
+                .disableCookieManagement()
+                .build();
+        this.maxSourceBytes = maxSourceSize.toBytes();
+        // Decoding and scaling are CPU- and memory-bound, so by default allow one render per core
+        this.renderSlots = new Semaphore(maxConcurrentRenders > 0 ? maxConcurrentRenders : Runtime.getRuntime().availableProcessors());
+        this.renderWaitNanos = renderWaitTimeout.toNanos();
+        ImageIO.setUseCache(false);   // Decode in memory rather than through temporary files
+
+        this.hits = Counter.builder("cache.gets").tag("cache", "images.thumbnails").tag("result", "hit")
+                .description("Thumbnail lookups served from the blob store").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", "images.thumbnails").tag("result", "miss")
+                .description("Thumbnail lookups that had to render the image").register(meterRegistry);
+        Gauge.builder("cache.size", store, BlobStore::size).tag("cache", "images.thumbnails")
+                .description("Thumbnails in the blob store").register(meterRegistry);
+    }
+
+    /**
+     * Returns a thumbnail of a property's image, rendering and caching it on a miss.
+     * @param propertyId The ID of the property.
+     * @param size The thumbnail size.
+     * @return The cached thumbnail, to be sent from its file region.
+     * @throws ResourceNotFoundException If the property doesn't exist or has no image.
+     * @throws ImageFetchException If the image can't be fetched or decoded.
+     * @throws ImageProcessingBusyException If no rendering slot frees up in time.
+     */
+    public BlobStore.Blob getThumbnail(Long propertyId, ThumbnailSize size) {
+        String image = propertyService.getPropertyById(propertyId).getImage();
+        if (!StringUtils.hasText(image)) {
+            throw new ResourceNotFoundException("Property with ID " + propertyId + " has no image");
+        }
+        String source = sourceKey(image);
+        BlobStore.Blob thumbnail = store.get(thumbnailKey(source, size));
+        if (thumbnail != null) {
+            hits.increment();
+            return thumbnail;
+        }
+        misses.increment();
+
+        CompletableFuture<Void> render = new CompletableFuture<>();
+        CompletableFuture<Void> running = rendering.putIfAbsent(source, render);
+        if (running == null) {
+            try {
+                renderAll(image, source);
+                render.complete(null);
+            } catch (RuntimeException ex) {
+                render.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                rendering.remove(source, render);
+            }
+        } else {
+            try {
+                running.join();
+            } catch (CompletionException ex) {
+                throw (RuntimeException) ex.getCause();   // Renders only fail with runtime exceptions
+            }
+        }
+
+        thumbnail = store.get(thumbnailKey(source, size));
+        if (thumbnail == null) {
+            throw new ImageFetchException("The thumbnail is too large to cache");
+        }
+        return thumbnail;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+        store.close();
+    }
+
+    // Fetches and decodes the original once, then stores every thumbnail size
+    private void renderAll(String url, String source) {
+        try {
+            if (!renderSlots.tryAcquire(renderWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new ImageProcessingBusyException("Too many images are being processed; retry shortly");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ImageProcessingBusyException("Interrupted while waiting to process the image");
+        }
+        try {
+            BufferedImage original = decode(fetch(url));
+            for (ThumbnailSize size : ThumbnailSize.values()) {
+                BufferedImage scaled = scale(original, size.pixels);
+                boolean alpha = scaled.getColorModel().hasAlpha();
+                store.put(thumbnailKey(source, size), alpha ? "image/png" : "image/jpeg", encode(scaled, alpha));
+            }
+        } finally {
+            renderSlots.release();
+        }
+    }
+
+    private byte[] fetch(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url.trim());
+        } catch (IllegalArgumentException ex) {
+            throw new ImageFetchException("The property's image URL is invalid");
+        }
+        try {
+            for (int redirects = 0; ; redirects++) {
+                checkFetchable(uri);
+                HttpGet request = new HttpGet(uri);
+                request.setHeader(HttpHeaders.ACCEPT, "image/*");
+                try (ClassicHttpResponse response = httpClient.executeOpen(null, request, null)) {
+                    // Whatever ends the read early drops the connection, instead of closing the response draining the body
+                    try {
+                        int status = response.getCode();
+                        if (REDIRECT_STATUSES.contains(status) && redirects < MAX_REDIRECTS) {
+                            Header location = response.getFirstHeader(HttpHeaders.LOCATION);
+                            if (location == null) {
+                                throw new ImageFetchException("The image origin redirected without a location");
+                            }
+                            uri = uri.resolve(location.getValue());
+                            request.cancel();
+                            continue;
+                        }
+                        if (status != 200 || response.getEntity() == null) {
+                            throw new ImageFetchException("The image origin answered with status " + status);
+                        }
+                        if (response.getEntity().getContentLength() > maxSourceBytes) {
+                            throw new ImageFetchException("The property's image is larger than " + maxSourceBytes + " bytes");
+                        }
+                        byte[] bytes = response.getEntity().getContent().readNBytes(Math.toIntExact(maxSourceBytes + 1));
+                        if (bytes.length > maxSourceBytes) {
+                            throw new ImageFetchException("The property's image is larger than " + maxSourceBytes + " bytes");
+                        }
+                        return bytes;
+                    } catch (RuntimeException ex) {
+                        request.cancel();
+                        throw ex;
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            throw new ImageFetchException("Could not fetch the property's image: " + ex.getMessage(), ex);
+        }
+    }
+
+    // Only absolute http(s) URLs; the host's addresses are vetted when the connection resolves them
+    private static void checkFetchable(URI uri) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+            throw new ImageFetchException("The property's image URL must be an absolute http(s) URL");
+        }
+    }
+
+    // The connection manager connects only to the addresses its resolver returns, so checking them here leaves no
+    // second lookup that a rebinding DNS server could answer with a private address
+    private static final class PublicAddressResolver extends SystemDefaultDnsResolver {
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            InetAddress[] addresses = super.resolve(host);
+            for (InetAddress address : addresses) {
+                if (address.isLoopbackAddress() || address.isAnyLocalAddress() || address.isLinkLocalAddress()
+                        || address.isSiteLocalAddress() || address.isMulticastAddress()
+                        || (address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc)) {   // fc00::/7
+                    throw new ImageFetchException("The property's image is on a private network address");
+                }
+            }
+            return addresses;
+        }
+    }
+
+    private static BufferedImage decode(byte[] bytes) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new ImageFetchException("The property's image is not in a supported format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new ImageFetchException("The property's image has too many pixels (" + width + "x" + height + ")");
+                }
+                // Skip rows and columns while decoding instead of holding the full-size original in memory
+                int step = Math.max(1, Math.max(width, height) / DECODE_TARGET_PIXELS);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException ex) {
+            throw new ImageFetchException("The property's image could not be decoded", ex);
+        }
+    }
+
+    // Fits the image within a square of the given side; halves repeatedly first, because a single bilinear step
+    // of more than 2x skips source pixels and aliases
+    private static BufferedImage scale(BufferedImage image, int box) {
+        double ratio = Math.min(1.0, (double) box / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = image;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    // PNG keeps transparency; everything else becomes a JPEG
+    private static byte[] encode(BufferedImage image, boolean alpha) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", out);
+                return out.toByteArray();
+            }
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not encode a thumbnail", ex);
+        }
+    }
+
+    // Thumbnails are keyed by image URL, so a property whose image changes gets new ones (and new ETags)
+    private static String sourceKey(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is unavailable", ex);
+        }
+    }
+
+    private static String thumbnailKey(String source, ThumbnailSize size) {
+        return size.name().toLowerCase(Locale.ROOT) + "-" + source;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.realestate.service;
+
+import com.example.realestate.dto.ImportReportDto;
+import com.example.realestate.event.PropertyChangedEvent;
+import com.example.realestate.exception.InvalidImportException;
+import com.example.realestate.model.Property;
+import com.example.realestate.repository.PropertyBulkRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service  // Bulk property import from JSON, NDJSON and CSV feeds
+public class PropertyImportService {
+
+    // Rows validated and inserted per transaction / JDBC batch
+    static final int CHUNK_SIZE = 1000;
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PropertyBulkRepository propertyBulkRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Imports a JSON array of properties, reading it element by element.
+     * A syntax error stops the import at that element; everything before it is kept.
+     * @param input The request body.
+     * @return A report of imported and rejected rows.
+     */
+    public ImportReportDto importJsonArray(InputStream input) throws IOException {
+        ImportReportDto report = new ImportReportDto();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long row = 0;
+
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidImportException("Expected a JSON array of properties");
+            }
+            while (true) {
+                JsonNode node;
+                try {
+                    if (parser.nextToken() == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    row++;
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException ex) {
+                    report.recordFailure(row, "Malformed JSON, import stopped here: " + ex.getOriginalMessage());
+                    break;
+                }
+                addRow(chunk, report, row, () -> objectMapper.treeToValue(node, Property.class));
+            }
+        }
+        flush(chunk, report);
+        return report;
+    }
+
+    /**
+     * Imports newline-delimited JSON, one property per line. A malformed line only rejects that row.
+     * @param input The request body.
+     * @return A report of imported and rejected rows.
+     */
+    public ImportReportDto importNdjson(InputStream input) throws IOException {
+        ImportReportDto report = new ImportReportDto();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long row = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String json = line;
+                addRow(chunk, report, ++row, () -> objectMapper.readValue(json, Property.class));
+            }
+        }
+        flush(chunk, report);
+        return report;
+    }
+
+    /**
+     * Imports CSV with a header row naming the property fields (title, description, location, price, image, type, status,
+     * and optionally latitude and longitude).
+     * @param input The request body.
+     * @return A report of imported and rejected rows.
+     */
+    public ImportReportDto importCsv(InputStream input) throws IOException {
+        ImportReportDto report = new ImportReportDto();
+        List<ParsedRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long row = 0;
+
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER.readerForMapOf(String.class).with(schema).readValues(input)) {
+            while (true) {
+                Map<String, String> values;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    values = rows.nextValue();
+                } catch (JsonProcessingException ex) {
+                    report.recordFailure(row, "Malformed CSV, import stopped here: " + ex.getOriginalMessage());
+                    break;
+                }
+                addRow(chunk, report, row, () -> objectMapper.convertValue(values, Property.class));
+            }
+        }
+        flush(chunk, report);
+        return report;
+    }
+
+    // Parses one row; conversion errors reject just that row
+    private void addRow(List<ParsedRow> chunk, ImportReportDto report, long row, RowParser parser) {
+        try {
+            Property property = parser.parse();
+            property.setId(null);   // IDs are always allocated by the import
+            chunk.add(new ParsedRow(row, property));
+        } catch (JsonProcessingException ex) {
+            report.recordFailure(row, ex.getOriginalMessage());
+        } catch (IllegalArgumentException ex) {
+            // convertValue wraps Jackson's mapping error
+            report.recordFailure(row, ex.getCause() instanceof JsonProcessingException cause
+                    ? cause.getOriginalMessage() : ex.getMessage());
+        }
+        if (chunk.size() == CHUNK_SIZE) {
+            flush(chunk, report);
+        }
+    }
+
+    // Validates the chunk and inserts the valid rows as one batch; falls back to row-by-row to isolate database errors
+    private void flush(List<ParsedRow> chunk, ImportReportDto report) {
+        List<ParsedRow> valid = new ArrayList<>(chunk.size());
+        for (ParsedRow parsed : chunk) {
+            Set<ConstraintViolation<Property>> violations = validator.validate(parsed.property());
+            if (violations.isEmpty()) {
+                valid.add(parsed);
+            } else {
+                report.recordFailure(parsed.row(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        chunk.clear();
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(valid.stream().map(ParsedRow::property).toList());
+            report.recordImported(valid.size());
+        } catch (DataAccessException batchFailure) {
+            for (ParsedRow parsed : valid) {
+                try {
+                    insert(List.of(parsed.property()));
+                    report.recordImported(1);
+                } catch (DataAccessException ex) {
+                    report.recordFailure(parsed.row(), NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Property> properties) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> ids = propertyBulkRepository.allocateIds(properties.size());
+            for (int i = 0; i < properties.size(); i++) {
+                properties.get(i).setId(ids.get(i));
+            }
+            propertyBulkRepository.insertAll(properties);
+            // Delivered to the indexes and caches only if the chunk commits
+            properties.forEach(property -> eventPublisher.publishEvent(PropertyChangedEvent.created(new Property(property))));
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        Property parse() throws JsonProcessingException;
+    }
+
+    private record ParsedRow(long row, Property property) {
+    }
+}
@@ -1,14 +1,48 @@
 package com.example.realestate.service;
 
+import com.example.realestate.cache.CatalogVersion;
+import com.example.realestate.cache.PropertyCache;
+import com.example.realestate.dto.MarketStatsDto;
+import com.example.realestate.dto.NearbyPropertyDto;
+import com.example.realestate.dto.NearbySearchCriteria;
+import com.example.realestate.dto.PropertyPatchDto;
+import com.example.realestate.dto.PropertySearchCriteria;
+import com.example.realestate.dto.PropertySummary;
+import com.example.realestate.dto.SimilarPropertyDto;
+import com.example.realestate.event.PropertyChangedEvent;
 import com.example.realestate.exception.ResourceNotFoundException;
+import com.example.realestate.index.GeoIndex;
+import com.example.realestate.index.MarketStatsIndex;
+import com.example.realestate.index.SimilarityIndex;
+import com.example.realestate.index.TextSearchIndex;
 import com.example.realestate.model.Property;
 import com.example.realestate.model.User;
 import com.example.realestate.repository.PropertyRepository;
+import com.example.realestate.repository.PropertyRepositoryCustom;
+import com.example.realestate.repository.PropertySpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service  // Marks this class as a Spring service component
 public class PropertyService {
@@ -16,13 +50,41 @@ public class PropertyService {
     @Autowired  // Injects the PropertyRepository dependency
     private PropertyRepository propertyRepository;
 
+    @Autowired  // Publishes PropertyChangedEvents for the in-memory indexes
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TextSearchIndex textSearchIndex;
+
+    @Autowired
+    private GeoIndex geoIndex;
+
+    @Autowired
+    private MarketStatsIndex marketStatsIndex;
+
+    @Autowired
+    private SimilarityIndex similarityIndex;
+
+    @Autowired  // Read-through cache for lookups by ID and type/status filter pages
+    private PropertyCache propertyCache;
+
+    @Autowired  // Change counter validating list and filter responses
+    private CatalogVersion catalogVersion;
+
+    @PersistenceContext  // Used to detach streamed rows so the persistence context stays small
+    private EntityManager entityManager;
+
     /**
      * Creates a new property and saves it to the database.
      * @param property The property object to be created.
      * @return The saved property object.
      */
+    @Transactional  // Commits the property together with its change feed entry
     public Property createProperty(Property property) {
-        return propertyRepository.save(property);
+        property.setVersion(null);  // A new property always starts at version 0
+        Property savedProperty = propertyRepository.save(property);
+        eventPublisher.publishEvent(PropertyChangedEvent.created(new Property(savedProperty)));
+        return savedProperty;
     }
 
     /**
@@ -33,42 +95,143 @@ public class PropertyService {
         return propertyRepository.findAll();
     }
 
+    /**
+     * Retrieves one keyset page of properties ordered by ID.
+     * @param cursor The last ID seen by the client, or null for the first page.
+     * @param limit The maximum number of properties to return.
+     * @return Up to limit properties whose ID is greater than the cursor.
+     */
+    public List<Property> getPropertiesAfter(Long cursor, int limit) {
+        return propertyRepository.findByIdGreaterThanOrderByIdAsc(cursor == null ? 0L : cursor, Limit.of(limit));
+    }
+
+    /**
+     * Retrieves one keyset page of property summaries ordered by ID, without loading full entities.
+     * @param cursor The last ID seen by the client, or null for the first page.
+     * @param limit The maximum number of summaries to return.
+     * @return Up to limit summaries whose ID is greater than the cursor.
+     */
+    public List<PropertySummary> getPropertySummariesAfter(Long cursor, int limit) {
+        return propertyRepository.findSummariesAfter(cursor == null ? 0L : cursor, Limit.of(limit));
+    }
+
+    /**
+     * Streams every property in ID order from a database cursor.
+     * Each row is detached once handed to the consumer, so memory stays flat regardless of table size.
+     * @param consumer Receives the properties one at a time.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllProperties(Consumer<Property> consumer) {
+        try (Stream<Property> properties = propertyRepository.streamAllByOrderByIdAsc()) {
+            properties.forEach(property -> {
+                consumer.accept(property);
+                entityManager.detach(property);
+            });
+        }
+    }
+
     /**
      * Retrieves a property by its ID.
      * @param id The ID of the property.
+     * Served from the property cache when possible.
      * @return An Optional containing the property if found, or empty if not.
      */
     public Property getPropertyById(Long id) {
-        return propertyRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Property with ID " + id + " not found"));
+        Property property = propertyCache.getById(id, key -> propertyRepository.findById(key).orElse(null));
+        if (property == null) {
+            throw new ResourceNotFoundException("Property with ID " + id + " not found");
+        }
+        return property;
+    }
+
+    /**
+     * Looks up the current version of a property for a conditional GET: from the cache if present,
+     * otherwise with a single-column query instead of loading the entity.
+     * @param id The ID of the property.
+     * @return The version, or empty if the property doesn't exist.
+     */
+    public Optional<Long> getPropertyVersion(Long id) {
+        Property cached = propertyCache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.ofNullable(cached.getVersion());
+        }
+        return propertyRepository.findVersionById(id);
+    }
+
+    /**
+     * @return A token that changes whenever any property is created, updated or deleted.
+     */
+    public String getCatalogVersion() {
+        return catalogVersion.current();
     }
 
     /**
      * Updates an existing property by its ID.
+     * If the details carry a version, the update is rejected when the stored property has moved on.
      * @param id The ID of the property to update.
      * @param propertyDetails The new property details.
      * @return An Optional containing the updated property if found, or empty if not.
+     * @throws ObjectOptimisticLockingFailureException If the property was changed by someone else.
      */
+    @Transactional
     public Optional<Property> updateProperty(Long id, Property propertyDetails) {
         // Find the property by ID and update its fields if present
         return propertyRepository.findById(id).map(property -> {
+            if (propertyDetails.getVersion() != null && !propertyDetails.getVersion().equals(property.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Property.class, id);
+            }
+            Property previous = new Property(property);
             property.setTitle(propertyDetails.getTitle());
             property.setDescription(propertyDetails.getDescription());
             property.setLocation(propertyDetails.getLocation());
             property.setPrice(propertyDetails.getPrice());
             property.setImage(propertyDetails.getImage());
-            return propertyRepository.save(property);  // Save the updated property
+            property.setType(propertyDetails.getType());
+            property.setStatus(propertyDetails.getStatus());
+            property.setLatitude(propertyDetails.getLatitude());
+            property.setLongitude(propertyDetails.getLongitude());
+            Property updatedProperty = propertyRepository.saveAndFlush(property);  // Flushed so the version is bumped before the event
+            eventPublisher.publishEvent(PropertyChangedEvent.updated(previous, new Property(updatedProperty)));
+            return updatedProperty;
         });
     }
 
+    /**
+     * Partially updates a property with one targeted UPDATE of the changed columns, which also returns the row as it
+     * was before and after, for the response and for the listeners; nothing is loaded first.
+     * @param id The ID of the property to patch.
+     * @param patch The fields to change, optionally with the version the client last read.
+     * @return An Optional containing the patched property if found, or empty if not.
+     * @throws ObjectOptimisticLockingFailureException If the patch carries a version that is no longer current.
+     */
+    @Transactional
+    public Optional<Property> patchProperty(Long id, PropertyPatchDto patch) {
+        if (patch.isEmpty()) {
+            return propertyRepository.findById(id);
+        }
+        Optional<PropertyRepositoryCustom.Patched> patched = propertyRepository.patch(id, patch);
+        if (patched.isEmpty()) {
+            if (!propertyRepository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new ObjectOptimisticLockingFailureException(Property.class, id);
+        }
+        Property current = patched.get().current();
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(patched.get().previous(), new Property(current)));
+        return Optional.of(current);
+    }
+
     /**
      * Deletes a property by its ID.
      * @param id The ID of the property to delete.
      * @return true if the property was deleted; false if it was not found.
      */
+    @Transactional
     public boolean deletePropertyById(Long id) {
-        if (propertyRepository.existsById(id)) {
-            propertyRepository.deleteById(id);
+        Optional<Property> property = propertyRepository.findById(id);
+        if (property.isPresent()) {
+            propertyRepository.delete(property.get());
+            eventPublisher.publishEvent(PropertyChangedEvent.deleted(new Property(property.get())));
             return true;
         }
         return false;  // Return false if the property does not exist
@@ -96,4 +259,120 @@ public class PropertyService {
         }
     }
 
+    /**
+     * Searches properties with any combination of type, status, price range, location and free text.
+     * All filters are combined into one query, and sorting and paging are applied in the database.
+     * Pages filtered only by type and/or status are served from the cache when possible.
+     * @param criteria The filters to apply; unset fields are ignored.
+     * @param pageable The requested page and sort order.
+     * @return One page of matching properties.
+     */
+    public Page<Property> searchProperties(PropertySearchCriteria criteria, Pageable pageable) {
+        return propertyCache.getFilterPage(criteria, pageable, Property.class,
+                key -> propertyRepository.findAll(PropertySpecifications.matching(criteria), pageable));
+    }
+
+    /**
+     * Same search as {@link #searchProperties(PropertySearchCriteria, Pageable)}, but selects only the summary columns.
+     * @param criteria The filters to apply; unset fields are ignored.
+     * @param pageable The requested page and sort order.
+     * @return One page of matching property summaries.
+     */
+    public Page<PropertySummary> searchPropertySummaries(PropertySearchCriteria criteria, Pageable pageable) {
+        return propertyCache.getFilterPage(criteria, pageable, PropertySummary.class,
+                key -> propertyRepository.findSummaries(PropertySpecifications.matching(criteria), pageable));
+    }
+
+    /**
+     * Full-text search over title, description and location using the in-memory inverted index.
+     * @param query The words to look for; every word must match.
+     * @param limit The maximum number of properties to return.
+     * @return Matching properties, most relevant first.
+     */
+    public List<Property> searchByText(String query, int limit) {
+        List<Long> rankedIds = textSearchIndex.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Property> byId = propertyRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        return rankedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Finds properties near a point using the in-memory spatial index, closest first.
+     * With a radius, returns the closest properties inside it; without one, returns the closest properties overall.
+     * @param criteria The search point, optional radius, optional type/status filters and result limit.
+     * @return Matching properties with their distance from the point.
+     */
+    public List<NearbyPropertyDto> findNearby(NearbySearchCriteria criteria) {
+        String type = StringUtils.hasText(criteria.getType()) ? criteria.getType() : null;
+        String status = StringUtils.hasText(criteria.getStatus()) ? criteria.getStatus() : null;
+        List<GeoIndex.GeoHit> hits = criteria.getRadiusKm() != null
+                ? geoIndex.withinRadius(criteria.getLat(), criteria.getLon(), criteria.getRadiusKm(), type, status, criteria.getLimit())
+                : geoIndex.nearest(criteria.getLat(), criteria.getLon(), type, status, criteria.getLimit());
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Property> byId = propertyRepository.findAllById(hits.stream().map(GeoIndex.GeoHit::propertyId).toList())
+                .stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        return hits.stream()
+                .filter(hit -> byId.containsKey(hit.propertyId()))
+                .map(hit -> new NearbyPropertyDto(byId.get(hit.propertyId()), hit.distanceKm()))
+                .toList();
+    }
+
+    /**
+     * Finds the properties most similar to a given one (type, status, price, location and wording) using the
+     * in-memory vector index, then loads the ones that aren't cached in one query.
+     * @param id The ID of the property.
+     * @param k The maximum number of properties to return.
+     * @return The similar properties with their similarity score, most similar first; empty if the property doesn't exist.
+     */
+    public Optional<List<SimilarPropertyDto>> findSimilar(Long id, int k) {
+        List<SimilarityIndex.SimilarHit> hits = similarityIndex.similar(id, k);
+        if (hits == null) {
+            return Optional.empty();
+        }
+        if (hits.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        // Popular listings are usually cached already; only the rest are loaded, in one query
+        Map<Long, Property> byId = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (SimilarityIndex.SimilarHit hit : hits) {
+            Property cached = propertyCache.getIfPresent(hit.propertyId());
+            if (cached != null) {
+                byId.put(hit.propertyId(), cached);
+            } else {
+                missing.add(hit.propertyId());
+            }
+        }
+        if (!missing.isEmpty()) {
+            propertyRepository.findAllById(missing).forEach(property -> byId.put(property.getId(), property));
+        }
+        return Optional.of(hits.stream()
+                .filter(hit -> byId.containsKey(hit.propertyId()))
+                .map(hit -> new SimilarPropertyDto(byId.get(hit.propertyId()), hit.score()))
+                .toList());
+    }
+
+    /**
+     * Price statistics from the in-memory aggregates, without reading the property table.
+     * @param type (Optional) Only include properties of this type.
+     * @param status (Optional) Only include properties with this status.
+     * @param location (Optional) Only include properties in this location.
+     * @param groupBy The dimensions (type, status, location) to group by.
+     * @param percentiles The price percentiles to report, each between 0 and 100.
+     * @return One entry per group, largest first.
+     */
+    public List<MarketStatsDto> getMarketStats(String type, String status, String location,
+                                               Set<String> groupBy, List<Double> percentiles) {
+        return marketStatsIndex.stats(
+                StringUtils.hasText(type) ? type : null,
+                StringUtils.hasText(status) ? status : null,
+                StringUtils.hasText(location) ? location : null,
+                groupBy, percentiles);
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.realestate.service;
+
+import com.example.realestate.cache.PropertyCache;
+import com.example.realestate.model.Property;
+import com.example.realestate.repository.ReactivePropertyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service  // Non-blocking property reads over R2DBC; no request thread waits on the database
+public class ReactivePropertyService {
+
+    @Autowired
+    private ReactivePropertyRepository reactivePropertyRepository;
+
+    @Autowired  // Shared with PropertyService; read here but never filled, since it loads through JPA
+    private PropertyCache propertyCache;
+
+    /**
+     * Retrieves a property by its ID, from the property cache when it is there.
+     * @param id The ID of the property.
+     * @return The property, or empty if it doesn't exist.
+     */
+    public Mono<Property> getPropertyById(long id) {
+        Property cached = propertyCache.getIfPresent(id);
+        return cached != null ? Mono.just(cached) : reactivePropertyRepository.findById(id);
+    }
+
+    /**
+     * Retrieves one keyset page of properties ordered by ID.
+     * @param cursor The last ID seen by the client, or null for the first page.
+     * @param limit The maximum number of properties to return.
+     * @return Up to limit properties whose ID is greater than the cursor.
+     */
+    public Flux<Property> getPropertiesAfter(Long cursor, int limit) {
+        return reactivePropertyRepository.findAfter(cursor == null ? 0L : cursor, limit);
+    }
+
+    /**
+     * Streams every property in ID order at the pace the subscriber consumes them.
+     * @return Every property.
+     */
+    public Flux<Property> streamAllProperties() {
+        return reactivePropertyRepository.streamAll();
+    }
+}
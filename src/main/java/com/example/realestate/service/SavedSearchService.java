@@ -0,0 +1,313 @@
+package com.example.realestate.service;
+
+import com.example.realestate.event.PropertyChangedEvent;
+import com.example.realestate.exception.SavedSearchLimitException;
+import com.example.realestate.exception.UserNotFoundException;
+import com.example.realestate.index.SavedSearchIndex;
+import com.example.realestate.model.Property;
+import com.example.realestate.model.PropertyChange;
+import com.example.realestate.model.SavedSearch;
+import com.example.realestate.model.SearchNotification;
+import com.example.realestate.model.User;
+import com.example.realestate.repository.SavedSearchRepository;
+import com.example.realestate.repository.SearchNotificationRepository;
+import com.example.realestate.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Saved searches and their notifications. Instead of re-running every saved search after each write, each committed
+ * create or update is matched against all saved searches at once through the in-memory {@link SavedSearchIndex},
+ * and the matches are handed to the {@link SearchNotificationQueue}. Saved searches only notify about listings
+ * created or changed after they were saved, and about each listing at most once.
+ * <p>
+ * Each instance matches only the writes it commits, so every instance's index must hold every saved search. Searches
+ * saved through other instances are picked up every refresh interval and matched against the change feed entries
+ * committed since they were saved, which covers the writes this instance committed before it knew of them; any
+ * notification the other instance already recorded is ignored on insert. Searches deleted elsewhere are dropped
+ * every prune interval; until then they may still match, but notifications for deleted searches aren't written.
+ */
+@Service
+public class SavedSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SavedSearchService.class);
+
+    // How far before the previous refresh to look for new searches: they can commit out of creation order, and the
+    // instances' clocks differ slightly
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SearchNotificationRepository searchNotificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SavedSearchIndex savedSearchIndex;
+
+    @Autowired
+    private SearchNotificationQueue searchNotificationQueue;
+
+    @Autowired
+    private PropertyChangeFeed propertyChangeFeed;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${realestate.searches.max-per-user:50}")
+    private int maxPerUser;
+
+    private Timer matchTimer;
+
+    // When the last load or refresh started; null until the index is loaded
+    private volatile Instant lastRefresh;
+
+    @PostConstruct
+    void registerMetrics() {
+        matchTimer = Timer.builder("search.percolate").register(meterRegistry);
+    }
+
+    /**
+     * Loads every saved search into the index once the application has started. Not done while the context is
+     * refreshing, which has to work without a database for the CDS training run (see the Dockerfile).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAll() {
+        long start = System.nanoTime();
+        Instant loadedAt = Instant.now();
+        savedSearchIndex.addAll(savedSearchRepository.findAll());
+        lastRefresh = loadedAt;
+        log.info("Indexed {} saved searches in {} ms", savedSearchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Adds the saved searches created through other instances since the previous refresh, and queues notifications
+     * for the changes committed after they were saved.
+     */
+    @Scheduled(fixedDelayString = "${realestate.searches.refresh-interval:5s}",
+            initialDelayString = "${realestate.searches.refresh-interval:5s}")
+    public void refresh() {
+        Instant since = lastRefresh;
+        if (since == null) {
+            return;
+        }
+        lastRefresh = Instant.now();
+        List<SavedSearch> added = savedSearchRepository.findByCreatedAtAfter(since.minus(REFRESH_OVERLAP)).stream()
+                .filter(search -> !savedSearchIndex.contains(search.getId()))
+                .toList();
+        if (added.isEmpty()) {
+            return;
+        }
+        added.forEach(savedSearchIndex::add);
+        int queued = backfill(added);
+        log.info("Picked up {} saved searches from other instances and queued {} notifications", added.size(), queued);
+    }
+
+    /**
+     * Drops the saved searches deleted through other instances. A search saved here while the IDs are read may be
+     * dropped too; the next refresh adds it back.
+     */
+    @Scheduled(fixedDelayString = "${realestate.searches.prune-interval:10m}",
+            initialDelayString = "${realestate.searches.prune-interval:10m}")
+    public void prune() {
+        if (lastRefresh != null) {
+            savedSearchIndex.retainAll(new HashSet<>(savedSearchRepository.findAllIds()));
+        }
+    }
+
+    /**
+     * Matches a committed create or update against every saved search and queues a notification per match.
+     * Updates that leave type, status, price and location unchanged can't produce new matches and are skipped.
+     * @param event The change published by PropertyService or the bulk import.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        Property current = event.getCurrent();
+        if (current == null || (event.getPrevious() != null && sameCriteria(event.getPrevious(), current))) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<SavedSearchIndex.Match> matches = savedSearchIndex.match(current);
+        matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        Instant now = Instant.now();
+        for (SavedSearchIndex.Match match : matches) {
+            searchNotificationQueue.offer(new SearchNotification(null, match.userId(), match.savedSearchId(), current.getId(), now));
+        }
+    }
+
+    /**
+     * Resolves the account behind an authenticated request.
+     * @param email The authenticated email (the JWT subject).
+     * @return The ID of the user.
+     * @throws UserNotFoundException If the account no longer exists.
+     */
+    public Long getUserId(String email) {
+        User user = userRepository.findByEmail(email);
+        if (user == null) {
+            throw new UserNotFoundException("User not found");
+        }
+        return user.getId();
+    }
+
+    /**
+     * Lists a user's saved searches, oldest first.
+     * @param userId The ID of the user.
+     * @return The saved searches.
+     */
+    public List<SavedSearch> getSavedSearches(Long userId) {
+        return savedSearchRepository.findByUserIdOrderById(userId);
+    }
+
+    /**
+     * Saves a search for a user and starts matching new listings against it.
+     * @param userId The ID of the user.
+     * @param search The search criteria.
+     * @return The saved search.
+     * @throws SavedSearchLimitException If the user already has the maximum number of saved searches.
+     */
+    public SavedSearch createSavedSearch(Long userId, SavedSearch search) {
+        if (savedSearchRepository.countByUserId(userId) >= maxPerUser) {
+            throw new SavedSearchLimitException("At most " + maxPerUser + " saved searches per user");
+        }
+        search.setId(null);
+        search.setUserId(userId);
+        search.setCreatedAt(Instant.now());
+        search.setFeedSequence(propertyChangeFeed.getLastSequence());
+        SavedSearch saved = savedSearchRepository.save(search);
+        savedSearchIndex.add(saved);
+        return saved;
+    }
+
+    /**
+     * Deletes one of a user's saved searches along with its notifications.
+     * @param userId The ID of the user.
+     * @param id The ID of the saved search.
+     * @return true if the search was found and deleted.
+     */
+    @Transactional
+    public boolean deleteSavedSearch(Long userId, Long id) {
+        return savedSearchRepository.findByIdAndUserId(id, userId)
+                .map(search -> {
+                    searchNotificationRepository.deleteBySavedSearch(id);
+                    savedSearchRepository.delete(search);
+                    afterCommit(() -> savedSearchIndex.remove(id));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * Deletes every saved search and notification of the given users, e.g. when their accounts are deleted.
+     * Joins the caller's transaction.
+     * @param userIds The IDs of the users.
+     */
+    @Transactional
+    public void deleteAllForUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        searchNotificationRepository.deleteByUsers(userIds);
+        savedSearchRepository.deleteByUserIds(userIds.toArray(Long[]::new));
+        HashSet<Long> users = new HashSet<>(userIds);
+        afterCommit(() -> savedSearchIndex.removeUsers(users));
+    }
+
+    /**
+     * Lists a user's notifications after an ID, oldest first.
+     * @param userId The ID of the user.
+     * @param after The last notification ID the user has seen, or 0 for all of them.
+     * @param limit The maximum number of notifications to return.
+     * @return Up to limit notifications.
+     */
+    public List<SearchNotification> getNotifications(Long userId, long after, int limit) {
+        return searchNotificationRepository.findAfter(userId, after, limit);
+    }
+
+    // Matches searches against the change feed after the sequence each was saved at; returns the notifications queued
+    private int backfill(List<SavedSearch> searches) {
+        SavedSearchIndex pending = new SavedSearchIndex();
+        pending.addAll(searches);
+        Map<Long, Long> savedAt = searches.stream().collect(Collectors.toMap(SavedSearch::getId, SavedSearch::getFeedSequence));
+        long cursor = Collections.min(savedAt.values());
+        int queued = 0;
+        List<PropertyChange> changes;
+        while (!(changes = propertyChangeFeed.getChangesAfter(cursor, BACKFILL_BATCH_SIZE)).isEmpty()) {
+            Instant now = Instant.now();
+            for (PropertyChange change : changes) {
+                if (change.getProperty() == null) {
+                    continue;   // Deleted
+                }
+                for (SavedSearchIndex.Match match : pending.match(readProperty(change))) {
+                    if (change.getSequence() > savedAt.get(match.savedSearchId())) {
+                        searchNotificationQueue.offer(new SearchNotification(null, match.userId(), match.savedSearchId(), change.getPropertyId(), now));
+                        queued++;
+                    }
+                }
+            }
+            cursor = changes.get(changes.size() - 1).getSequence();
+        }
+        return queued;
+    }
+
+    private Property readProperty(PropertyChange change) {
+        try {
+            return objectMapper.readValue(change.getProperty(), Property.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not read change " + change.getSequence(), ex);
+        }
+    }
+
+    private static boolean sameCriteria(Property previous, Property current) {
+        return Objects.equals(previous.getType(), current.getType())
+                && Objects.equals(previous.getStatus(), current.getStatus())
+                && Objects.equals(previous.getPrice(), current.getPrice())
+                && Objects.equals(previous.getLocation(), current.getLocation());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
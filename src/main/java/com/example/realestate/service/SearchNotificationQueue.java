@@ -0,0 +1,119 @@
+package com.example.realestate.service;
+
+import com.example.realestate.model.SearchNotification;
+import com.example.realestate.repository.SearchNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded in-memory queue between saved-search matching and the notifications table.
+ * <p>
+ * Matching enqueues without touching the database, so a write or import never waits on notification inserts.
+ * One background thread drains whatever has accumulated, up to batch-size at a time, and writes it in a single
+ * statement, so a bulk import that matches thousands of searches costs a handful of inserts. When the queue is full
+ * further matches are dropped and counted rather than blocking the writer; the queue is flushed on shutdown.
+ * Reported as search.notifications.queued (gauge), .dropped, .written and .failed.
+ */
+@Component
+public class SearchNotificationQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchNotificationQueue.class);
+
+    private final SearchNotificationRepository searchNotificationRepository;
+    private final BlockingQueue<SearchNotification> queue;
+    private final int batchSize;
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    public SearchNotificationQueue(
+            SearchNotificationRepository searchNotificationRepository,
+            @Value("${realestate.searches.notification-queue-capacity:100000}") int capacity,
+            @Value("${realestate.searches.notification-batch-size:1000}") int batchSize,
+            MeterRegistry meterRegistry) {
+
+        this.searchNotificationRepository = searchNotificationRepository;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+
+        Gauge.builder("search.notifications.queued", queue, BlockingQueue::size).register(meterRegistry);
+        this.dropped = Counter.builder("search.notifications.dropped").register(meterRegistry);
+        this.written = Counter.builder("search.notifications.written").register(meterRegistry);
+        this.failed = Counter.builder("search.notifications.failed").register(meterRegistry);
+
+        this.drainer = Thread.ofPlatform().name("search-notifications").daemon().start(this::drain);
+    }
+
+    /**
+     * Queues a notification without blocking.
+     * @param notification The match to record.
+     * @return false if the queue was full and the notification was dropped.
+     */
+    public boolean offer(SearchNotification notification) {
+        if (queue.offer(notification)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    /**
+     * @return The number of notifications waiting to be written.
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        drainer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // Writes batches until stopped, then flushes what is left
+    private void drain() {
+        List<SearchNotification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SearchNotification first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<SearchNotification> batch) {
+        try {
+            int inserted = searchNotificationRepository.insertAll(batch);
+            written.increment(inserted);
+        } catch (RuntimeException ex) {
+            // Not retried: a failing batch would otherwise hold up every match behind it
+            failed.increment(batch.size());
+            log.warn("Could not write {} saved-search notifications", batch.size(), ex);
+        }
+    }
+}
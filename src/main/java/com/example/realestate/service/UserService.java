@@ -1,16 +1,29 @@
 package com.example.realestate.service;
 
+import com.example.realestate.dto.BatchResultDto;
+import com.example.realestate.dto.UserBatchUpdateDto;
+import com.example.realestate.dto.UserSummary;
 import com.example.realestate.model.User;
+import com.example.realestate.repository.UserBulkRepository;
 import com.example.realestate.repository.UserRepository;
 import com.example.realestate.security.JwtUtil;
+import com.example.realestate.security.PasswordVerifier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service  // Marks this class as a Spring service component
 public class UserService {
@@ -21,12 +34,22 @@ public class UserService {
     @Autowired  // Injects the JwtUtil dependency to handle JWT token generation
     private JwtUtil jwtUtil;
 
+    @Autowired  // Set-based bulk updates and deletes
+    private UserBulkRepository userBulkRepository;
+
+    @Autowired  // Hashes and verifies passwords
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired  // Removes the saved searches of deleted users
+    private SavedSearchService savedSearchService;
+
     /**
-     * Registers a new user by saving their details to the database.
+     * Registers a new user by saving their details to the database, with the password hashed.
      * @param user The user object containing registration details.
      * @return The saved user object.
      */
     public User registerUser(User user) {
+        user.setPassword(passwordVerifier.hash(user.getPassword()));
         return userRepository.save(user);
     }
 
@@ -39,8 +62,14 @@ public class UserService {
      * @return A map containing user details and JWT token if authentication succeeds; otherwise, null.
      */
     public Map<String, Object> authenticateUser(String email, String password) {
-        User user = userRepository.findByEmail(email);
-        if (user != null && user.getPassword().equals(password)) {
+        User user = userRepository.findByEmail(email);   // Unique index lookup
+        if (user != null && passwordVerifier.matches(email, password, user.getPassword())) {
+            // Legacy plain-text (or weaker) password: store it with the current hashing scheme
+            String upgraded = passwordVerifier.upgradeIfNeeded(email, password, user.getPassword());
+            if (upgraded != null) {
+                user.setPassword(upgraded);
+                userRepository.save(user);
+            }
             String token = jwtUtil.generateToken(user.getEmail());
 
             Map<String, Object> response = new HashMap<>();
@@ -56,11 +85,12 @@ public class UserService {
 
 
     /**
-     * Retrieves all users from the database.
-     * @return A list of all users.
+     * Retrieves one page of users, without their passwords.
+     * @param pageable The page, size and sort order.
+     * @return The page of user summaries.
      */
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public Page<UserSummary> getUserSummaries(Pageable pageable) {
+        return userRepository.findSummaries(pageable);
     }
 
 
@@ -75,7 +105,7 @@ public class UserService {
         return userRepository.findById(id).map(user -> {
             user.setName(userDetails.getName());
             user.setEmail(userDetails.getEmail());
-            user.setPassword(userDetails.getPassword());
+            user.setPassword(passwordVerifier.hash(userDetails.getPassword()));
             return userRepository.save(user); // Save updated user
         });
     }
@@ -86,12 +116,49 @@ public class UserService {
      * @param id The ID of the user to delete.
      * @return true if the user was deleted; false if the user was not found.
      */
+    @Transactional
     public boolean deleteUserById(Long id) {
         if (userRepository.existsById(id)) {
+            savedSearchService.deleteAllForUsers(List.of(id));
             userRepository.deleteById(id);
             return true;
         }
         return false;  // Return false if user does not exist
     }
 
+
+    /**
+     * Updates the email and/or name of many users in one transaction; null fields are left unchanged.
+     * If the same ID appears more than once, the last entry wins.
+     * @param entries The changes to apply.
+     * @return How many users were updated, and which IDs didn't exist.
+     */
+    @Transactional
+    public BatchResultDto updateUsers(List<UserBatchUpdateDto.Entry> entries) {
+        Map<Long, UserBatchUpdateDto.Entry> byId = new LinkedHashMap<>();
+        entries.forEach(entry -> byId.put(entry.id(), entry));
+        List<Long> updated = userBulkRepository.updateAll(new ArrayList<>(byId.values()));
+        return new BatchResultDto(byId.size(), updated.size(), missing(byId.keySet(), updated));
+    }
+
+
+    /**
+     * Deletes many users in one transaction.
+     * @param ids The IDs of the users to delete; duplicates are ignored.
+     * @return How many users were deleted, and which IDs didn't exist.
+     */
+    @Transactional
+    public BatchResultDto deleteUsers(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        List<Long> deleted = userBulkRepository.deleteAll(new ArrayList<>(distinct));
+        savedSearchService.deleteAllForUsers(deleted);
+        return new BatchResultDto(distinct.size(), deleted.size(), missing(distinct, deleted));
+    }
+
+    // The requested IDs no row was found for, in request order
+    private static List<Long> missing(Set<Long> requested, List<Long> affected) {
+        Set<Long> found = new HashSet<>(affected);
+        return requested.stream().filter(id -> !found.contains(id)).toList();
+    }
+
 }
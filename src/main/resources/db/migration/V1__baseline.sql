@@ -0,0 +1,23 @@
+-- Baseline: the schema the application created with ddl-auto=update before its schema was versioned. Databases
+-- created that way are baselined at this version (spring.flyway.baseline-on-migrate) instead of running it, so
+-- everything added since goes in V2__... onwards.
+
+create table property (
+    id bigint generated by default as identity,
+    description varchar(1000),
+    image varchar(255) not null,
+    location varchar(30) not null,
+    price float(53) not null,
+    status varchar(16) not null,
+    title varchar(30) not null,
+    type varchar(16) not null,
+    primary key (id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(255) not null,
+    name varchar(16) not null,
+    password varchar(16) not null,
+    primary key (id)
+);
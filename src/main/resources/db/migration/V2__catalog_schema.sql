@@ -0,0 +1,66 @@
+-- Everything added to the baseline schema before migrations took over from ddl-auto=update
+
+-- Optimistic locking and map coordinates on listings, and the indexes behind the filter queries
+alter table property add column version bigint default 0 not null;
+alter table property add column latitude float(53);
+alter table property add column longitude float(53);
+
+create index idx_property_type_status_price on property (type, status, price);
+create index idx_property_status_price on property (status, price);
+create index idx_property_price on property (price);
+
+-- Passwords are stored as bcrypt hashes (60 characters), and logins look users up by email
+alter table users alter column password type varchar(255);
+alter table users add constraint idx_users_email unique (email);
+
+-- Change feed outbox (see PropertyChangeFeed) and the single row its sequence numbers are allocated from
+create table property_changes (
+    changed_at timestamp(6) with time zone not null,
+    property_id bigint not null,
+    sequence bigint not null,
+    change_type varchar(16) not null check (change_type in ('CREATED','UPDATED','DELETED')),
+    property text,
+    primary key (sequence)
+);
+
+create table property_change_sequence (
+    id integer not null,
+    last_sequence bigint not null,
+    primary key (id)
+);
+
+insert into property_change_sequence (id, last_sequence) values (1, 0);
+
+create table property_price_history (
+    price float(53) not null,
+    changed_at timestamp(6) with time zone not null,
+    property_id bigint not null,
+    primary key (changed_at, property_id)
+);
+
+create table saved_searches (
+    max_price float(53),
+    min_price float(53),
+    created_at timestamp(6) with time zone not null,
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    location varchar(255),
+    name varchar(255),
+    status varchar(255),
+    type varchar(255),
+    primary key (id)
+);
+
+create index idx_saved_searches_user on saved_searches (user_id);
+
+create table search_notifications (
+    id bigint generated by default as identity,
+    matched_at timestamp(6) with time zone not null,
+    property_id bigint not null,
+    saved_search_id bigint not null,
+    user_id bigint not null,
+    primary key (id),
+    constraint uk_search_notifications_search_property unique (saved_search_id, property_id)
+);
+
+create index idx_search_notifications_user on search_notifications (user_id, id);
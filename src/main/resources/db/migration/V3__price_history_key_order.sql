@@ -0,0 +1,5 @@
+-- Hibernate generated the price history key as (changed_at, property_id). Lead with the property instead, so one
+-- property's history is a single index range in time order and loading the whole history by (property, time), as
+-- PriceHistoryRepository.streamAll does on startup, reads the index in order instead of sorting the table.
+alter table property_price_history drop constraint property_price_history_pkey;
+alter table property_price_history add constraint property_price_history_pkey primary key (property_id, changed_at);
@@ -0,0 +1,5 @@
+-- Instances pick up saved searches created through other instances by creation time (see SavedSearchService.refresh).
+-- Each search records the change feed sequence it was saved at, so an instance that learns of it late can still match
+-- the changes committed after that.
+alter table saved_searches add column feed_sequence bigint not null default 0;
+create index idx_saved_searches_created on saved_searches (created_at);
@@ -0,0 +1,85 @@
+package com.example.realestate.cache;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlobStoreTest {
+
+	private static final int SEGMENT_SIZE = 4096;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void storesBlobsAsReadableFileRegions() throws IOException {
+		try (BlobStore store = new BlobStore(directory, SEGMENT_SIZE, 3)) {
+			store.put("a", "image/jpeg", bytes(100, 1));
+			BlobStore.Blob blob = store.put("b", "image/png", bytes(200, 2));
+
+			assertThat(blob.contentType()).isEqualTo("image/png");
+			assertThat(readRegion(blob)).isEqualTo(bytes(200, 2));
+			assertThat(store.get("a").bytes()).isEqualTo(bytes(100, 1));
+			assertThat(store.get("missing")).isNull();
+			assertThat(store.put("huge", "image/jpeg", new byte[SEGMENT_SIZE])).isNull();
+		}
+	}
+
+	@Test
+	void evictsTheLeastRecentlyReadSegment() throws IOException {
+		try (BlobStore store = new BlobStore(directory, SEGMENT_SIZE, 3)) {
+			store.put("first", "image/jpeg", bytes(3000, 1));    // Segment 0
+			store.put("second", "image/jpeg", bytes(3000, 2));   // Segment 1
+			store.put("third", "image/jpeg", bytes(3000, 3));    // Segment 2
+			store.get("first");                                  // Segment 1 is now the least recently read
+
+			store.put("fourth", "image/jpeg", bytes(3000, 4));   // Needs a new segment, so one is evicted
+
+			assertThat(store.get("second")).isNull();
+			assertThat(store.get("first").bytes()).isEqualTo(bytes(3000, 1));
+			assertThat(store.get("fourth").bytes()).isEqualTo(bytes(3000, 4));
+			assertThat(store.size()).isEqualTo(3);
+		}
+	}
+
+	@Test
+	void recoversTheIndexFromTheSegmentsOnReopen() throws IOException {
+		try (BlobStore store = new BlobStore(directory, SEGMENT_SIZE, 3)) {
+			store.put("a", "image/jpeg", bytes(100, 1));
+			store.put("a", "image/png", bytes(50, 2));   // Replaced; the later record wins
+			store.put("b", "image/jpeg", bytes(3000, 3));
+		}
+		try (BlobStore store = new BlobStore(directory, SEGMENT_SIZE, 3)) {
+			assertThat(store.size()).isEqualTo(2);
+			assertThat(store.get("a").contentType()).isEqualTo("image/png");
+			assertThat(store.get("a").bytes()).isEqualTo(bytes(50, 2));
+			assertThat(readRegion(store.get("b"))).isEqualTo(bytes(3000, 3));
+
+			store.put("c", "image/jpeg", bytes(10, 4));   // Appends after the recovered records
+			assertThat(store.get("b").bytes()).isEqualTo(bytes(3000, 3));
+			assertThat(store.get("c").bytes()).isEqualTo(bytes(10, 4));
+		}
+	}
+
+	private static byte[] readRegion(BlobStore.Blob blob) throws IOException {
+		try (FileChannel channel = FileChannel.open(blob.file())) {
+			ByteBuffer buffer = ByteBuffer.allocate(blob.length());
+			channel.read(buffer, blob.offset());
+			return buffer.array();
+		}
+	}
+
+	private static byte[] bytes(int length, int seed) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (i * 31 + seed);
+		}
+		return data;
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoIndexTest {
+
+	private final GeoIndex index = new GeoIndex();
+
+	@Test
+	void radiusSearchReturnsClosestFirstAndAppliesFilters() {
+		index.upsert(property(1L, 18.5204, 73.8567, "House"));   // Pune centre
+		index.upsert(property(2L, 18.5590, 73.7868, "Flat"));    // ~8.5 km away
+		index.upsert(property(3L, 19.0760, 72.8777, "House"));   // Mumbai, ~120 km away
+
+		List<GeoIndex.GeoHit> hits = index.withinRadius(18.5204, 73.8567, 10, null, null, 10);
+		assertThat(hits).extracting(GeoIndex.GeoHit::propertyId).containsExactly(1L, 2L);
+		assertThat(hits.get(1).distanceKm()).isCloseTo(8.5, within(0.5));
+
+		assertThat(index.withinRadius(18.5204, 73.8567, 200, "House", null, 10))
+				.extracting(GeoIndex.GeoHit::propertyId).containsExactly(1L, 3L);
+	}
+
+	@Test
+	void nearestWidensTheSearchUntilItHasEnoughHits() {
+		index.upsert(property(1L, 51.5072, -0.1276, "House"));    // London
+		index.upsert(property(2L, 48.8566, 2.3522, "House"));     // Paris
+		index.upsert(property(3L, -33.8688, 151.2093, "House"));  // Sydney
+		index.upsert(property(4L, 64.1466, -179.9, "House"));     // Across the antimeridian from 5
+		index.upsert(property(5L, 64.1466, 179.9, "House"));
+
+		assertThat(index.nearest(51.5, 0, null, null, 2)).extracting(GeoIndex.GeoHit::propertyId).containsExactly(1L, 2L);
+		assertThat(index.nearest(0, 0, null, null, 10)).hasSize(5);
+		assertThat(index.nearest(64.1466, 179.95, null, null, 2))
+				.extracting(GeoIndex.GeoHit::propertyId).containsExactlyInAnyOrder(4L, 5L);
+	}
+
+	@Test
+	void updatesMoveAndClearedCoordinatesRemove() {
+		index.upsert(property(1L, 18.52, 73.85, "House"));
+		index.upsert(property(1L, 28.61, 77.20, "House"));   // Moved to Delhi
+
+		assertThat(index.withinRadius(18.52, 73.85, 50, null, null, 10)).isEmpty();
+		assertThat(index.withinRadius(28.61, 77.20, 1, null, null, 10)).hasSize(1);
+
+		index.upsert(property(1L, null, null, "House"));
+		assertThat(index.size()).isZero();
+	}
+
+	private static Property property(Long id, Double latitude, Double longitude, String type) {
+		Property property = new Property(id, "Home " + id, null, "City", 100.0, "http://example.com/a.jpg", type, "For Sale");
+		property.setLatitude(latitude);
+		property.setLongitude(longitude);
+		return property;
+	}
+}
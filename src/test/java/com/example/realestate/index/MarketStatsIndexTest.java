@@ -0,0 +1,54 @@
+package com.example.realestate.index;
+
+import com.example.realestate.dto.MarketStatsDto;
+import com.example.realestate.model.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class MarketStatsIndexTest {
+
+	private final MarketStatsIndex index = new MarketStatsIndex();
+
+	@Test
+	void groupsAndReportsPercentilesWithinOnePercent() {
+		for (long id = 1; id <= 1000; id++) {
+			index.upsert(property(id, "House", "Pune", id * 1000.0));
+		}
+		index.upsert(property(1001L, "Flat", "Pune", 50_000.0));
+
+		List<MarketStatsDto> byType = index.stats(null, null, null, Set.of("type"), List.of(50.0, 90.0));
+		assertThat(byType).extracting(MarketStatsDto::type).containsExactly("House", "Flat");
+
+		MarketStatsDto houses = byType.get(0);
+		assertThat(houses.count()).isEqualTo(1000);
+		assertThat(houses.averagePrice()).isCloseTo(500_500.0, within(0.01));
+		assertThat(houses.pricePercentiles().get("p50")).isCloseTo(500_000.0, within(5_000.0));
+		assertThat(houses.pricePercentiles().get("p90")).isCloseTo(900_000.0, within(9_000.0));
+	}
+
+	@Test
+	void updatesAndDeletesSubtractWhatWasAdded() {
+		index.upsert(property(1L, "House", "Pune", 100.0));
+		index.upsert(property(2L, "House", "Pune", 300.0));
+		index.upsert(property(1L, "House", "Goa", 200.0));   // Moved and repriced
+		index.remove(2L);
+
+		List<MarketStatsDto> stats = index.stats(null, null, null, Set.of("location"), List.of(50.0));
+		assertThat(stats).hasSize(1);
+		assertThat(stats.get(0).location()).isEqualTo("Goa");
+		assertThat(stats.get(0).count()).isEqualTo(1);
+		assertThat(stats.get(0).averagePrice()).isEqualTo(200.0);
+
+		index.remove(1L);
+		assertThat(index.stats(null, null, null, Set.of(), List.of(50.0))).isEmpty();
+	}
+
+	private static Property property(Long id, String type, String location, Double price) {
+		return new Property(id, "Home " + id, null, location, price, "http://example.com/a.jpg", type, "For Sale");
+	}
+}
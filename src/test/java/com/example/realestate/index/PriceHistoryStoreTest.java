@@ -0,0 +1,65 @@
+package com.example.realestate.index;
+
+import com.example.realestate.dto.PriceBucketDto;
+import com.example.realestate.dto.PricePointDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceHistoryStoreTest {
+
+	private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+	private static final long DAY = Duration.ofDays(1).toMillis();
+
+	private final PriceHistoryStore store = new PriceHistoryStore();
+
+	@Test
+	void roundTripsDeltaEncodedPointsAndSkipsUnchangedPrices() {
+		store.append(1, T0, 500_000.0);
+		store.append(1, T0.plusMillis(1), 500_000.0);   // Same price: not a change
+		store.append(1, T0.plus(Duration.ofDays(30)), 480_000.5);
+		store.append(1, T0.plus(Duration.ofDays(90)), 510_000.0);
+
+		assertThat(store.points(1, T0, T0.plus(Duration.ofDays(365)))).containsExactly(
+				new PricePointDto(T0, 500_000.0),
+				new PricePointDto(T0.plus(Duration.ofDays(30)), 480_000.5),
+				new PricePointDto(T0.plus(Duration.ofDays(90)), 510_000.0));
+		assertThat(store.points(1, T0.plusMillis(1), T0.plus(Duration.ofDays(90)))).hasSize(1);
+		assertThat(store.lastPrice(1)).isEqualTo(510_000.0);
+		assertThat(store.pointCount()).isEqualTo(3);
+		assertThat(store.encodedBytes()).isLessThan(30);
+	}
+
+	@Test
+	void bucketsCarryThePriceInEffectThroughQuietIntervals() {
+		store.append(1, T0.minus(Duration.ofDays(10)), 100.0);   // Before the range: sets the opening price
+		store.append(1, T0.plus(Duration.ofHours(6)), 120.0);
+		store.append(1, T0.plus(Duration.ofHours(12)), 90.0);
+		store.append(1, T0.plus(Duration.ofDays(2)).plus(Duration.ofHours(1)), 95.0);
+
+		List<PriceBucketDto> buckets = store.buckets(1, T0, T0.plus(Duration.ofDays(4)), DAY);
+
+		assertThat(buckets).containsExactly(
+				new PriceBucketDto(T0, 100.0, 120.0, 90.0, 90.0, 2),
+				new PriceBucketDto(T0.plus(Duration.ofDays(1)), 90.0, 90.0, 90.0, 90.0, 0),
+				new PriceBucketDto(T0.plus(Duration.ofDays(2)), 90.0, 95.0, 90.0, 95.0, 1),
+				new PriceBucketDto(T0.plus(Duration.ofDays(3)), 95.0, 95.0, 95.0, 95.0, 0));
+	}
+
+	@Test
+	void bucketsStartAtTheFirstKnownPriceAndRejectTooManyIntervals() {
+		store.append(1, T0.plus(Duration.ofDays(1)).plus(Duration.ofHours(3)), 200.0);
+
+		assertThat(store.buckets(1, T0, T0.plus(Duration.ofDays(3)), DAY)).containsExactly(
+				new PriceBucketDto(T0.plus(Duration.ofDays(1)), 200.0, 200.0, 200.0, 200.0, 1),
+				new PriceBucketDto(T0.plus(Duration.ofDays(2)), 200.0, 200.0, 200.0, 200.0, 0));
+		assertThat(store.buckets(2, T0, T0.plus(Duration.ofDays(3)), DAY)).isEmpty();
+		assertThatThrownBy(() -> store.buckets(1, T0, T0.plus(Duration.ofDays(3650)), DAY))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import com.example.realestate.model.SavedSearch;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SavedSearchIndexTest {
+
+	private static final String[] TYPES = {"House", "Flat", "Plot", null};
+	private static final String[] STATUSES = {"Sale", "Rent", null};
+	private static final String[] LOCATIONS = {"Pune", "Goa", "Mumbai", null};
+
+	private final SavedSearchIndex index = new SavedSearchIndex();
+
+	@Test
+	void matchesTheSameSearchesAsCheckingEachOne() {
+		Random random = new Random(42);
+		List<SavedSearch> searches = new ArrayList<>();
+		for (long id = 1; id <= 2000; id++) {
+			// Mix of no range, one-sided, narrow and very wide ranges
+			Double min = random.nextInt(3) == 0 ? null : (double) random.nextInt(2_000_000);
+			Double max = random.nextInt(3) == 0 ? null
+					: (min == null ? 0 : min) + (random.nextBoolean() ? random.nextInt(200_000) : random.nextInt(100_000_000));
+			searches.add(search(id, id % 100, pick(random, TYPES), pick(random, STATUSES), min, max, pick(random, LOCATIONS)));
+		}
+		index.addAll(searches);
+
+		for (long id = 1; id <= 2000; id++) {
+			Property property = property(id, pick(random, TYPES), pick(random, STATUSES),
+					random.nextInt(10) == 0 ? null : random.nextDouble() * 5_000_000, "Near " + pick(random, LOCATIONS));
+			List<Long> expected = searches.stream().filter(search -> satisfies(search, property)).map(SavedSearch::getId).toList();
+
+			assertThat(index.match(property)).extracting(SavedSearchIndex.Match::savedSearchId).containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+
+	@Test
+	void boundsAreInclusiveAndBandsSplitOctavesInQuarters() {
+		index.add(search(1L, 7L, "House", "Sale", 300_000.0, 350_000.0, null));
+		index.add(search(2L, 7L, null, null, 500_000.0, null, null));
+		index.add(search(3L, 8L, "House", null, null, 500_000.0, "pune"));
+
+		assertThat(index.match(property(1L, "House", "Sale", 300_000.0, "Pune"))).containsExactlyInAnyOrder(
+				new SavedSearchIndex.Match(1L, 7L), new SavedSearchIndex.Match(3L, 8L));
+		assertThat(index.match(property(2L, "House", "Sale", 500_000.0, "Goa"))).containsExactly(new SavedSearchIndex.Match(2L, 7L));
+		assertThat(index.match(property(3L, "Flat", "Sale", 350_000.01, "Pune"))).isEmpty();
+		assertThat(index.match(property(4L, "House", "Rent", null, "Pune"))).isEmpty();   // Price ranges need a price
+
+		assertThat(SavedSearchIndex.band(0.5)).isZero();
+		assertThat(SavedSearchIndex.band(1.0)).isEqualTo(1);
+		assertThat(SavedSearchIndex.band(1.24)).isEqualTo(1);
+		assertThat(SavedSearchIndex.band(1.25)).isEqualTo(2);
+		assertThat(SavedSearchIndex.band(2.0)).isEqualTo(5);
+	}
+
+	@Test
+	void removedSearchesNoLongerMatch() {
+		index.add(search(1L, 7L, "House", null, 100.0, 200.0, null));
+		index.add(search(2L, 7L, "House", null, null, null, null));
+		index.add(search(3L, 8L, "House", null, 150.0, null, null));
+		index.add(search(1L, 7L, "House", null, 100.0, 120.0, null));   // Edited: replaces the previous version
+
+		Property property = property(1L, "House", "Sale", 150.0, "Pune");
+		assertThat(index.match(property)).extracting(SavedSearchIndex.Match::savedSearchId).containsExactlyInAnyOrder(2L, 3L);
+
+		index.remove(3L);
+		index.removeUsers(Set.of(7L));
+		assertThat(index.match(property)).isEmpty();
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void retainAllDropsSearchesDeletedElsewhere() {
+		index.add(search(1L, 7L, "House", null, null, null, null));
+		index.add(search(2L, 7L, "House", null, null, null, null));
+
+		index.retainAll(Set.of(2L, 3L));
+		assertThat(index.contains(1L)).isFalse();
+		assertThat(index.contains(2L)).isTrue();
+		assertThat(index.match(property(1L, "House", "Sale", 150.0, "Pune")))
+				.extracting(SavedSearchIndex.Match::savedSearchId).containsExactly(2L);
+	}
+
+	private static boolean satisfies(SavedSearch search, Property property) {
+		boolean priced = search.getMinPrice() != null || search.getMaxPrice() != null;
+		return (search.getType() == null || search.getType().equals(property.getType()))
+				&& (search.getStatus() == null || search.getStatus().equals(property.getStatus()))
+				&& (!priced || (property.getPrice() != null
+						&& (search.getMinPrice() == null || property.getPrice() >= search.getMinPrice())
+						&& (search.getMaxPrice() == null || property.getPrice() <= search.getMaxPrice())))
+				&& (search.getLocation() == null || property.getLocation().toLowerCase().contains(search.getLocation().toLowerCase()));
+	}
+
+	private static <T> T pick(Random random, T[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static SavedSearch search(Long id, Long userId, String type, String status, Double minPrice, Double maxPrice, String location) {
+		return new SavedSearch(id, userId, "search " + id, type, status, minPrice, maxPrice, location);
+	}
+
+	private static Property property(Long id, String type, String status, Double price, String location) {
+		return new Property(id, "Listing " + id, null, location, price, "http://example.com/" + id + ".jpg", type, status);
+	}
+}
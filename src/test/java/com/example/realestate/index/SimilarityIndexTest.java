@@ -0,0 +1,76 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilarityIndexTest {
+
+	private static final String[] TYPES = {"House", "Flat", "Villa", "Plot"};
+	private static final String[] STATUSES = {"Sale", "Rent"};
+	private static final String[] LOCATIONS = {"Pune", "Goa", "Mumbai", "Nagpur", "Thane"};
+	private static final String[] WORDS = {"garden", "pool", "sea", "view", "parking", "balcony", "lift", "gym", "quiet", "central"};
+
+	private final SimilarityIndex index = new SimilarityIndex();
+
+	@Test
+	void ranksByTypeLocationAndPrice() {
+		index.upsert(property(1L, "House", "Sale", 500_000.0, "Pune", "Garden house with parking"));
+		index.upsert(property(2L, "House", "Sale", 550_000.0, "Pune", "Family house with a garden"));
+		index.upsert(property(3L, "House", "Sale", 5_000_000.0, "Pune", "Garden house with parking"));
+		index.upsert(property(4L, "Flat", "Rent", 20_000.0, "Goa", "Sea view flat"));
+
+		List<SimilarityIndex.SimilarHit> hits = index.similar(1L, 3);
+
+		assertThat(hits).extracting(SimilarityIndex.SimilarHit::propertyId).containsExactly(2L, 3L, 4L);
+		assertThat(hits.get(0).score()).isGreaterThan(hits.get(1).score());
+		assertThat(index.similar(99L, 3)).isNull();
+	}
+
+	@Test
+	void invertedFileFindsMostOfTheExactNeighbours() {
+		Random random = new Random(42);
+		for (long id = 1; id <= 5000; id++) {
+			index.upsert(property(id, TYPES[random.nextInt(TYPES.length)], STATUSES[random.nextInt(STATUSES.length)],
+					50_000 * Math.pow(2, random.nextDouble() * 8), LOCATIONS[random.nextInt(LOCATIONS.length)],
+					WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]));
+		}
+		index.train();
+		assertThat(index.listCount()).isEqualTo((int) Math.sqrt(5000));   // Background trainings of smaller snapshots never replace it
+
+		int found = 0;
+		for (long id = 1; id <= 5000; id += 50) {
+			List<Long> exact = index.similarExact(id, 10).stream().map(SimilarityIndex.SimilarHit::propertyId).toList();
+			found += (int) index.similar(id, 10).stream().map(SimilarityIndex.SimilarHit::propertyId).filter(exact::contains).count();
+		}
+		assertThat(found / 1000.0).isGreaterThan(0.9);
+	}
+
+	@Test
+	void removedPropertiesAreNotReturnedAndSlotsAreReused() {
+		for (long id = 1; id <= 2000; id++) {
+			index.upsert(property(id, "House", "Sale", 100_000.0 + id, "Pune", "Garden"));
+		}
+		index.train();
+		for (long id = 2; id <= 2000; id += 2) {
+			index.remove(id);
+		}
+		for (long id = 3001; id <= 3500; id++) {
+			index.upsert(property(id, "Flat", "Rent", 10_000.0, "Goa", "Sea view"));
+		}
+		index.upsert(property(1L, "Flat", "Rent", 10_000.0, "Goa", "Sea view"));   // Moved to another cluster
+
+		assertThat(index.size()).isEqualTo(1500);
+		List<SimilarityIndex.SimilarHit> hits = index.similar(1L, 100);
+		assertThat(hits).hasSize(100).allSatisfy(hit -> assertThat(hit.propertyId()).isBetween(3001L, 3500L));
+		assertThat(index.similar(3L, 1000)).noneMatch(hit -> hit.propertyId() % 2 == 0 && hit.propertyId() <= 2000);
+	}
+
+	private static Property property(Long id, String type, String status, Double price, String location, String description) {
+		return new Property(id, "Listing", description, location, price, "http://example.com/" + id + ".jpg", type, status);
+	}
+}
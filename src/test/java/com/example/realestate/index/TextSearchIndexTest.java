@@ -0,0 +1,54 @@
+package com.example.realestate.index;
+
+import com.example.realestate.model.Property;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextSearchIndexTest {
+
+	private final TextSearchIndex index = new TextSearchIndex();
+
+	@Test
+	void requiresEveryTermAndRanksTitleMatchesFirst() {
+		index.upsert(property(1L, "Sea view villa", "Quiet street", "Goa"));
+		index.upsert(property(2L, "Family house", "Large garden with a sea view", "Goa"));
+		index.upsert(property(3L, "Studio", "Sea breeze", "Mumbai"));
+
+		assertThat(index.search("sea view", 10)).containsExactly(1L, 2L);
+		assertThat(index.search("GOA", 10)).containsExactlyInAnyOrder(1L, 2L);
+		assertThat(index.search("penthouse", 10)).isEmpty();
+	}
+
+	@Test
+	void updatesAndDeletesReplaceEarlierPostings() {
+		index.upsert(property(1L, "Old title", "garden", "Pune"));
+		index.upsert(property(1L, "New title", "pool", "Pune"));
+		index.upsert(property(2L, "Other", "garden", "Pune"));
+
+		assertThat(index.search("garden", 10)).containsExactly(2L);
+		assertThat(index.search("pool", 10)).containsExactly(1L);
+
+		index.remove(2L);
+		assertThat(index.search("garden", 10)).isEmpty();
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void compactionKeepsLiveDocumentsSearchable() {
+		for (long id = 1; id <= 5000; id++) {
+			index.upsert(property(id, "Flat " + id, "balcony", "Delhi"));
+		}
+		for (long id = 1; id <= 4000; id++) {
+			index.remove(id);
+		}
+
+		assertThat(index.size()).isEqualTo(1000);
+		assertThat(index.search("balcony", 5000)).hasSize(1000).allMatch(id -> id > 4000);
+		assertThat(index.search("flat 4500", 10)).containsExactly(4500L);
+	}
+
+	private static Property property(Long id, String title, String description, String location) {
+		return new Property(id, title, description, location, 100.0, "http://example.com/a.jpg", "House", "For Sale");
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.realestate.security;
+
+import com.example.realestate.security.RateLimiter.EndpointClass;
+import com.example.realestate.security.RateLimiter.Limit;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+	private long now = -TimeUnit.SECONDS.toNanos(100);   // nanoTime may be negative
+	private final RateLimiter limiter = new RateLimiter(
+			Map.of(EndpointClass.SEARCH, Limit.of(10, 5)), 2, 1, 1000, () -> now);
+
+	@Test
+	void admitsABurstThenRefillsAtTheSustainedRate() {
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire("ip:1", EndpointClass.SEARCH)).isZero();
+		}
+		assertThat(limiter.tryAcquire("ip:1", EndpointClass.SEARCH)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+		now += TimeUnit.MILLISECONDS.toNanos(100);   // One token's worth at 10/s
+		assertThat(limiter.tryAcquire("ip:1", EndpointClass.SEARCH)).isZero();
+		assertThat(limiter.tryAcquire("ip:1", EndpointClass.SEARCH)).isPositive();
+
+		now += TimeUnit.SECONDS.toNanos(10);   // Idle time refills only up to the burst
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire("ip:1", EndpointClass.SEARCH)).isZero();
+		}
+		assertThat(limiter.tryAcquire("ip:1", EndpointClass.SEARCH)).isPositive();
+	}
+
+	@Test
+	void bucketsAreSeparatePerClientAndUnlimitedClassesPass() {
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire("ip:1", EndpointClass.SEARCH);
+		}
+		assertThat(limiter.tryAcquire("ip:1", EndpointClass.SEARCH)).isPositive();
+		assertThat(limiter.tryAcquire("ip:2", EndpointClass.SEARCH)).isZero();
+		assertThat(limiter.tryAcquire("ip:1", EndpointClass.READ)).isZero();
+	}
+
+	@Test
+	void concurrencyCapRejectsUntilASlotIsReleased() {
+		assertThat(limiter.tryEnter()).isTrue();
+		assertThat(limiter.tryEnter()).isTrue();
+		assertThat(limiter.tryEnter()).isFalse();
+		limiter.exit();
+		assertThat(limiter.tryEnter()).isTrue();
+	}
+
+	@Test
+	void streamsHaveTheirOwnCap() {
+		assertThat(limiter.tryEnterStream()).isTrue();
+		assertThat(limiter.tryEnterStream()).isFalse();
+		assertThat(limiter.tryEnter()).isTrue();   // Open streams don't take request slots
+		limiter.exitStream();
+		assertThat(limiter.tryEnterStream()).isTrue();
+	}
+}